@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2008 Nathan Sweet
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR
+ * IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.esotericsoftware.yamlbeans.benchmarks;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import com.esotericsoftware.yamlbeans.YamlConfig;
+import com.esotericsoftware.yamlbeans.YamlException;
+import com.esotericsoftware.yamlbeans.YamlWriter;
+
+/** Generates the YAML documents used by the benchmarks. Each corpus is a stream of documents of one shape, repeated until the
+ * stream reaches the requested size. Generation is seeded, so every run measures the same input. */
+public class Corpus {
+	/** Scalar fields only. */
+	static public class Flat {
+		public String name;
+		public String description;
+		public int id;
+		public long timestamp;
+		public double score;
+		public float ratio;
+		public boolean active;
+		public char grade;
+	}
+
+	/** Beans within beans, several levels deep. */
+	static public class Nested {
+		public String name;
+		public int level;
+		public Flat details;
+		public Nested child;
+	}
+
+	/** Mostly lists and maps. */
+	static public class Collections {
+		public String name;
+		public List<Flat> items;
+		public List<String> tags;
+		public Map<String, Integer> counts;
+	}
+
+	/** The same scalars as {@link Flat}, in private fields with getters and setters. */
+	static public class Properties {
+		private String name;
+		private String description;
+		private int id;
+		private long timestamp;
+		private double score;
+		private float ratio;
+		private boolean active;
+		private char grade;
+
+		public String getName () {
+			return name;
+		}
+
+		public void setName (String name) {
+			this.name = name;
+		}
+
+		public String getDescription () {
+			return description;
+		}
+
+		public void setDescription (String description) {
+			this.description = description;
+		}
+
+		public int getId () {
+			return id;
+		}
+
+		public void setId (int id) {
+			this.id = id;
+		}
+
+		public long getTimestamp () {
+			return timestamp;
+		}
+
+		public void setTimestamp (long timestamp) {
+			this.timestamp = timestamp;
+		}
+
+		public double getScore () {
+			return score;
+		}
+
+		public void setScore (double score) {
+			this.score = score;
+		}
+
+		public float getRatio () {
+			return ratio;
+		}
+
+		public void setRatio (float ratio) {
+			this.ratio = ratio;
+		}
+
+		public boolean isActive () {
+			return active;
+		}
+
+		public void setActive (boolean active) {
+			this.active = active;
+		}
+
+		public char getGrade () {
+			return grade;
+		}
+
+		public void setGrade (char grade) {
+			this.grade = grade;
+		}
+	}
+
+	static public Class typeOf (String shape) {
+		if (shape.equals("flat")) return Flat.class;
+		if (shape.equals("nested")) return Nested.class;
+		if (shape.equals("collections")) return Collections.class;
+		if (shape.equals("properties")) return Properties.class;
+		throw new IllegalArgumentException("Unknown shape: " + shape);
+	}
+
+	/** @param size The approximate number of characters, with an optional k or m suffix, eg "100k". */
+	static public int parseSize (String size) {
+		size = size.toLowerCase();
+		if (size.endsWith("k")) return Integer.parseInt(size.substring(0, size.length() - 1)) * 1024;
+		if (size.endsWith("m")) return Integer.parseInt(size.substring(0, size.length() - 1)) * 1024 * 1024;
+		return Integer.parseInt(size);
+	}
+
+	/** Writes objects of the shape until the YAML reaches the size, in a single pass.
+	 * @param objects Receives the objects that were written. */
+	static public String generate (String shape, String size, List objects) throws YamlException {
+		int target = parseSize(size);
+		Random random = new Random(42);
+		StringWriter buffer = new StringWriter();
+		YamlWriter writer = new YamlWriter(buffer, config());
+		do {
+			Object object = create(shape, random);
+			objects.add(object);
+			writer.write(object);
+		} while (buffer.getBuffer().length() < target);
+		writer.close();
+		return buffer.toString();
+	}
+
+	/** The config used to write the corpus. Root tags are omitted so documents are read with an explicit type. */
+	static public YamlConfig config () {
+		YamlConfig config = new YamlConfig();
+		config.writeConfig.setWriteRootTags(false);
+		config.writeConfig.setAutoAnchor(false);
+		return config;
+	}
+
+	static private Object create (String shape, Random random) {
+		if (shape.equals("flat")) return flat(random);
+		if (shape.equals("nested")) return nested(random, 5);
+		if (shape.equals("collections")) return collections(random);
+		if (shape.equals("properties")) return properties(random);
+		throw new IllegalArgumentException("Unknown shape: " + shape);
+	}
+
+	static private Flat flat (Random random) {
+		Flat flat = new Flat();
+		flat.name = word(random) + " " + word(random);
+		flat.description = random.nextInt(4) == 0 ? "line one\nline two \u00e9\u20ac" : word(random) + ": " + word(random);
+		flat.id = random.nextInt(1000000);
+		flat.timestamp = 1500000000000L + random.nextInt(Integer.MAX_VALUE);
+		flat.score = random.nextDouble() * 1000;
+		flat.ratio = random.nextFloat();
+		flat.active = random.nextBoolean();
+		flat.grade = (char)('A' + random.nextInt(5));
+		return flat;
+	}
+
+	static private Properties properties (Random random) {
+		Flat flat = flat(random);
+		Properties properties = new Properties();
+		properties.setName(flat.name);
+		properties.setDescription(flat.description);
+		properties.setId(flat.id);
+		properties.setTimestamp(flat.timestamp);
+		properties.setScore(flat.score);
+		properties.setRatio(flat.ratio);
+		properties.setActive(flat.active);
+		properties.setGrade(flat.grade);
+		return properties;
+	}
+
+	static private Nested nested (Random random, int depth) {
+		Nested nested = new Nested();
+		nested.name = word(random);
+		nested.level = depth;
+		nested.details = flat(random);
+		if (depth > 0) nested.child = nested(random, depth - 1);
+		return nested;
+	}
+
+	static private Collections collections (Random random) {
+		Collections collections = new Collections();
+		collections.name = word(random);
+		collections.items = new ArrayList();
+		for (int i = 0, n = 5 + random.nextInt(10); i < n; i++)
+			collections.items.add(flat(random));
+		collections.tags = new ArrayList();
+		for (int i = 0, n = 10 + random.nextInt(20); i < n; i++)
+			collections.tags.add(word(random));
+		collections.counts = new LinkedHashMap();
+		for (int i = 0, n = 10 + random.nextInt(20); i < n; i++)
+			collections.counts.put(word(random) + i, random.nextInt(10000));
+		return collections;
+	}
+
+	static private String word (Random random) {
+		char[] chars = new char[3 + random.nextInt(8)];
+		for (int i = 0; i < chars.length; i++)
+			chars[i] = (char)('a' + random.nextInt(26));
+		return new String(chars);
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2008 Nathan Sweet
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR
+ * IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.esotericsoftware.yamlbeans.benchmarks;
+
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.esotericsoftware.yamlbeans.YamlConfig;
+import com.esotericsoftware.yamlbeans.YamlException;
+
+/** Holds one generated corpus per shape and size combination, shared by all threads of a benchmark.
+ * @see Corpus */
+@State(Scope.Benchmark)
+public class CorpusState {
+	@Param({"flat", "nested", "collections", "properties"}) public String shape;
+	@Param({"1k", "100k", "10m"}) public String size;
+
+	public Class type;
+	public List objects;
+	public String yaml;
+	public byte[] utf8;
+
+	@Setup(Level.Trial)
+	public void setup () throws YamlException {
+		type = Corpus.typeOf(shape);
+		objects = new ArrayList();
+		yaml = Corpus.generate(shape, size, objects);
+		utf8 = yaml.getBytes(Charset.forName("UTF-8"));
+	}
+
+	/** The config used to bind the corpus, with getters and setters called through reflection or through accessors generated
+	 * with LambdaMetafactory. The config is shared, so its cached binding metadata is reused as it would be by an application.
+	 * @see YamlConfig#setLambdaAccessors(boolean) */
+	@State(Scope.Benchmark)
+	static public class Binding {
+		@Param({"reflection", "lambda"}) public String accessors;
+
+		public YamlConfig config;
+
+		@Setup(Level.Trial)
+		public void setup () {
+			config = Corpus.config();
+			config.setLambdaAccessors(accessors.equals("lambda"));
+		}
+	}
+
+	/** Discards everything written to it, so writer benchmarks measure YamlBeans rather than buffer growth. */
+	static public class NullWriter extends Writer {
+		public void write (char[] chars, int offset, int length) {
+		}
+
+		public void write (String string, int offset, int length) {
+		}
+
+		public void write (int c) {
+		}
+
+		public void flush () {
+		}
+
+		public void close () {
+		}
+	}
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2008 Nathan Sweet
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR
+ * IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.esotericsoftware.yamlbeans.benchmarks;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.esotericsoftware.yamlbeans.YamlException;
+import com.esotericsoftware.yamlbeans.YamlWriter;
+import com.esotericsoftware.yamlbeans.emitter.Emitter;
+import com.esotericsoftware.yamlbeans.emitter.EmitterException;
+import com.esotericsoftware.yamlbeans.parser.Event;
+import com.esotericsoftware.yamlbeans.parser.Parser;
+
+/** Emission to a writer that discards its output. {@link #events(Events)} replays parsed events through the {@link Emitter} and
+ * EmitterWriter alone, {@link #beans(CorpusState, CorpusState.Binding)} also includes walking the beans with
+ * {@link YamlWriter}. */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmitterBenchmark {
+	@Benchmark
+	public void events (Events events) throws IOException, EmitterException {
+		Emitter emitter = new Emitter(new CorpusState.NullWriter());
+		for (int i = 0, n = events.events.length; i < n; i++)
+			emitter.emit(events.events[i]);
+		emitter.close();
+	}
+
+	@Benchmark
+	public void beans (CorpusState corpus, CorpusState.Binding binding) throws YamlException {
+		YamlWriter writer = new YamlWriter(new CorpusState.NullWriter(), binding.config);
+		for (int i = 0, n = corpus.objects.size(); i < n; i++)
+			writer.write(corpus.objects.get(i));
+		writer.close();
+	}
+
+	@State(Scope.Benchmark)
+	static public class Events {
+		public Event[] events;
+
+		@Setup(Level.Trial)
+		public void setup (CorpusState corpus) {
+			ArrayList list = new ArrayList();
+			Parser parser = new Parser(new StringReader(corpus.yaml));
+			for (Event event; (event = parser.getNextEvent()) != null;)
+				list.add(event);
+			events = (Event[])list.toArray(new Event[list.size()]);
+		}
+	}
+}
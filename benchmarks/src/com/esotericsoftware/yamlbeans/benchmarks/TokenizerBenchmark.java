@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2008 Nathan Sweet
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR
+ * IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.esotericsoftware.yamlbeans.benchmarks;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.esotericsoftware.yamlbeans.tokenizer.Token;
+import com.esotericsoftware.yamlbeans.tokenizer.Tokenizer;
+
+/** Raw tokenization throughput. The {@link Bytes} counter reports the input consumed, so bytes per second can be read from
+ * the "bytes" secondary result alongside operations per second. */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenizerBenchmark {
+	@Benchmark
+	public void reader (CorpusState corpus, Bytes bytes, Blackhole blackhole) {
+		Tokenizer tokenizer = new Tokenizer(new StringReader(corpus.yaml));
+		for (Token token; (token = tokenizer.getNextToken()) != null;)
+			blackhole.consume(token);
+		bytes.bytes += corpus.utf8.length;
+	}
+
+	@Benchmark
+	public void utf8 (CorpusState corpus, Bytes bytes, Blackhole blackhole) {
+		Tokenizer tokenizer = new Tokenizer(corpus.utf8);
+		for (Token token; (token = tokenizer.getNextToken()) != null;)
+			blackhole.consume(token);
+		bytes.bytes += corpus.utf8.length;
+	}
+
+	@Benchmark
+	public void slices (CorpusState corpus, Bytes bytes, Blackhole blackhole) {
+		Tokenizer tokenizer = new Tokenizer(corpus.utf8);
+		tokenizer.setScalarSlices(true);
+		tokenizer.setLazyPosition(true);
+		for (Token token; (token = tokenizer.getNextToken()) != null;)
+			blackhole.consume(token);
+		bytes.bytes += corpus.utf8.length;
+	}
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	static public class Bytes {
+		public long bytes;
+
+		@Setup(Level.Iteration)
+		public void reset () {
+			bytes = 0;
+		}
+	}
+}
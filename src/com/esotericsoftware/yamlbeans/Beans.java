@@ -36,6 +36,13 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 
+import com.esotericsoftware.yamlbeans.LambdaAccessors.BooleanSetter;
+import com.esotericsoftware.yamlbeans.LambdaAccessors.DoubleSetter;
+import com.esotericsoftware.yamlbeans.LambdaAccessors.FloatSetter;
+import com.esotericsoftware.yamlbeans.LambdaAccessors.Getter;
+import com.esotericsoftware.yamlbeans.LambdaAccessors.IntSetter;
+import com.esotericsoftware.yamlbeans.LambdaAccessors.LongSetter;
+import com.esotericsoftware.yamlbeans.LambdaAccessors.Setter;
 import com.esotericsoftware.yamlbeans.YamlConfig.ConstructorParameters;
 
 /** Utility for dealing with beans and public fields.
@@ -50,22 +57,48 @@ class Beans {
 	}
 
 	static public DeferredConstruction getDeferredConstruction (Class type, YamlConfig config) {
+		ClassInfo info = getClassInfo(type, config.beanProperties, config.privateFields, config);
+		if (info.deferredConstructor == null) return null;
+		return new DeferredConstruction(info.deferredConstructor, info.deferredParameterNames);
+	}
+
+	/** Returns the cached binding metadata for the class, computing it if the class has not been seen or the config has changed
+	 * in a way that affects it. */
+	static ClassInfo getClassInfo (Class type, boolean beanProperties, boolean privateFields, YamlConfig config) {
+		if (config == null) return new ClassInfo(type, beanProperties, privateFields, false, null);
 		ConstructorParameters parameters = config.readConfig.constructorParameters.get(type);
-		if (parameters != null) return new DeferredConstruction(parameters.constructor, parameters.parameterNames);
-		try {
-			Class constructorProperties = Class.forName("java.beans.ConstructorProperties");
-			for (Constructor typeConstructor : type.getConstructors()) {
-				Annotation annotation = typeConstructor.getAnnotation(constructorProperties);
-				if (annotation == null) continue;
-				String[] parameterNames = (String[])constructorProperties.getMethod("value").invoke(annotation, (Object[])null);
-				return new DeferredConstruction(typeConstructor, parameterNames);
-			}
-		} catch (Exception ignored) {
+		if (beanProperties != config.beanProperties || privateFields != config.privateFields)
+			return new ClassInfo(type, beanProperties, privateFields, config.lambdaAccessors, parameters);
+		ClassInfo info = config.classInfos.get(type);
+		if (info == null || info.beanProperties != beanProperties || info.privateFields != privateFields
+			|| info.lambdaAccessors != config.lambdaAccessors || info.parameters != parameters) {
+			info = new ClassInfo(type, beanProperties, privateFields, config.lambdaAccessors, parameters);
+			config.classInfos.put(type, info);
 		}
-		return null;
+		return info;
 	}
 
 	static public Object createObject (Class type, boolean privateConstructors) throws InvocationTargetException {
+		return newInstance(type, findConstructor(type, privateConstructors));
+	}
+
+	/** Creates an object the same as {@link #createObject(Class, boolean)}, using the constructor cached for the class. */
+	static Object createObject (Class type, YamlConfig config) throws InvocationTargetException {
+		ClassInfo info = getClassInfo(type, config.beanProperties, config.privateFields, config);
+		return newInstance(type, info.getConstructor(config.privateConstructors));
+	}
+
+	static private Object newInstance (Class type, Constructor constructor) throws InvocationTargetException {
+		try {
+			return constructor.newInstance();
+		} catch (Exception ex) {
+			throw new InvocationTargetException(ex, "Error constructing instance of class: " + type.getName());
+		}
+	}
+
+	/** Returns the no-arg constructor for the class, or for a common implementation if the class is a List, Set or Map without
+	 * one. */
+	static Constructor findConstructor (Class type, boolean privateConstructors) throws InvocationTargetException {
 		// Use no-arg constructor.
 		Constructor constructor = null;
 		for (Constructor typeConstructor : type.getConstructors()) {
@@ -102,29 +135,32 @@ class Beans {
 
 		if (constructor == null)
 			throw new InvocationTargetException(null, "Unable to find a no-arg constructor for class: " + type.getName());
-
-		try {
-			return constructor.newInstance();
-		} catch (Exception ex) {
-			throw new InvocationTargetException(ex, "Error constructing instance of class: " + type.getName());
-		}
+		return constructor;
 	}
 
 	static public Set<Property> getProperties (Class type, boolean beanProperties, boolean privateFields, YamlConfig config) {
 		if (type == null) throw new IllegalArgumentException("type cannot be null.");
 		Set<Property> properties = config.writeConfig.keepBeanPropertyOrder ? new LinkedHashSet() : new TreeSet();
-		for (Field field : getAllFields(type)) {
-			Property property = getProperty(type, beanProperties, privateFields, config, field);
-			if (property != null) {
-				properties.add(property);
-			}
-		}
+		Collections.addAll(properties, getClassInfo(type, beanProperties, privateFields, config)
+			.getProperties(config.writeConfig.keepBeanPropertyOrder));
 		return properties;
 	}
 
+	/** Returns the same properties as {@link #getProperties(Class, boolean, boolean, YamlConfig)} in the same order. The array is
+	 * cached and must not be modified. */
+	static Property[] getOrderedProperties (Class type, boolean beanProperties, boolean privateFields, YamlConfig config) {
+		if (type == null) throw new IllegalArgumentException("type cannot be null.");
+		return getClassInfo(type, beanProperties, privateFields, config).getProperties(config.writeConfig.keepBeanPropertyOrder);
+	}
+
 	static private String toJavaIdentifier (String name) {
-		StringBuilder buffer = new StringBuilder();
-		for (int i = 0, n = name.length(); i < n; i++) {
+		int i = 0, n = name.length();
+		while (i < n && Character.isJavaIdentifierPart(name.charAt(i)))
+			i++;
+		if (i == n) return name;
+		StringBuilder buffer = new StringBuilder(n);
+		buffer.append(name, 0, i);
+		for (; i < n; i++) {
 			char c = name.charAt(i);
 			if (Character.isJavaIdentifierPart(c)) buffer.append(c);
 		}
@@ -135,24 +171,19 @@ class Beans {
 		YamlConfig config) {
 		if (type == null) throw new IllegalArgumentException("type cannot be null.");
 		if (name == null || name.length() == 0) throw new IllegalArgumentException("name cannot be null or empty.");
-		name = toJavaIdentifier(name);
-
-		for (Field field : getAllFields(type))
-			if (field.getName().equals(name)) return getProperty(type, beanProperties, privateFields, config, field);
-
-		// If a property is not found, try prepending `_` for reserved field names (eg "class" in the data can be a "_class" field).
-		if (!name.startsWith("_")) return getProperty(type, "_" + name, beanProperties, privateFields, config);
-
-		return null;
+		return getClassInfo(type, beanProperties, privateFields, config).getProperty(toJavaIdentifier(name));
 	}
 
-	private static Property getProperty(Class<?> type, boolean beanProperties, boolean privateFields, YamlConfig config,
-			Field field) {
+	static private Property createProperty (Class<?> type, boolean beanProperties, boolean privateFields,
+		boolean lambdaAccessors, String[] constructorParameterNames, Field field) {
 		Property property = null;
 		if (beanProperties) {
 			String name = field.getName();
-			DeferredConstruction deferredConstruction = getDeferredConstruction(type, config);
-			boolean constructorProperty = deferredConstruction != null && deferredConstruction.hasParameter(name);
+			boolean constructorProperty = false;
+			if (constructorParameterNames != null) {
+				for (String parameterName : constructorParameterNames)
+					if (parameterName.equals(name)) constructorProperty = true;
+			}
 
 			String nameUpper = Character.toUpperCase(name.charAt(0)) + name.substring(1);
 			String setMethodName = "set" + nameUpper;
@@ -183,7 +214,7 @@ class Beans {
 				}
 			}
 			if (getMethod != null && (setMethod != null || constructorProperty)) {
-				return new MethodProperty(name, setMethod, getMethod);
+				return new MethodProperty(name, setMethod, getMethod, lambdaAccessors);
 			}
 		}
 
@@ -210,13 +241,148 @@ class Beans {
 		return allFields;
 	}
 
+	/** Binding metadata for a class that is computed once per config: the fields, the constructors to use for creating objects
+	 * and when construction is deferred, and the properties by name. Each property is created the first time it is needed. Safe
+	 * to share between threads.
+	 * @see YamlConfig#classInfos */
+	static class ClassInfo {
+		static private final Object NONE = new Object();
+
+		final Class type;
+		final boolean beanProperties, privateFields, lambdaAccessors;
+		/** The config's constructor parameters for the class when this info was computed, may be null. */
+		final ConstructorParameters parameters;
+		final Constructor deferredConstructor;
+		final String[] deferredParameterNames;
+		final Field[] fields;
+		/** The index in {@link #fields} of the first field with each name, and of each field starting with "_" by the rest of its
+		 * name, so reserved words in the YAML (eg "class") can be bound to fields such as "_class". */
+		private final Map<String, Integer> indices = new HashMap(), underscoreIndices = new HashMap();
+		/** Properties created so far, {@link #NONE} if the field has no property. Unsynchronized, a race creates the same property
+		 * twice. */
+		private final Object[] properties;
+		private volatile Property[] declaredOrder, sortedOrder;
+		private volatile Constructor constructor, privateConstructor;
+
+		ClassInfo (Class type, boolean beanProperties, boolean privateFields, boolean lambdaAccessors,
+			ConstructorParameters parameters) {
+			this.type = type;
+			this.beanProperties = beanProperties;
+			this.privateFields = privateFields;
+			this.lambdaAccessors = lambdaAccessors;
+			this.parameters = parameters;
+
+			Constructor deferredConstructor = null;
+			String[] deferredParameterNames = null;
+			if (parameters != null) {
+				deferredConstructor = parameters.constructor;
+				deferredParameterNames = parameters.parameterNames;
+			} else {
+				try {
+					Class constructorProperties = Class.forName("java.beans.ConstructorProperties");
+					for (Constructor typeConstructor : type.getConstructors()) {
+						Annotation annotation = typeConstructor.getAnnotation(constructorProperties);
+						if (annotation == null) continue;
+						deferredParameterNames = (String[])constructorProperties.getMethod("value").invoke(annotation, (Object[])null);
+						deferredConstructor = typeConstructor;
+						break;
+					}
+				} catch (Exception ignored) {
+				}
+			}
+			this.deferredConstructor = deferredConstructor;
+			this.deferredParameterNames = deferredParameterNames;
+
+			ArrayList<Field> allFields = getAllFields(type);
+			fields = allFields.toArray(new Field[allFields.size()]);
+			properties = new Object[fields.length];
+			for (int i = 0, n = fields.length; i < n; i++) {
+				String name = fields[i].getName();
+				if (!indices.containsKey(name)) indices.put(name, i);
+				if (name.startsWith("_")) {
+					name = name.substring(1);
+					if (!underscoreIndices.containsKey(name)) underscoreIndices.put(name, i);
+				}
+			}
+		}
+
+		/** Returns the constructor {@link Beans#createObject(Class, boolean)} uses, finding it the first time it is needed. */
+		Constructor getConstructor (boolean privateConstructors) throws InvocationTargetException {
+			Constructor constructor = privateConstructors ? privateConstructor : this.constructor;
+			if (constructor == null) {
+				constructor = findConstructor(type, privateConstructors);
+				if (privateConstructors)
+					privateConstructor = constructor;
+				else
+					this.constructor = constructor;
+			}
+			return constructor;
+		}
+
+		/** @param name A Java identifier.
+		 * @return May be null. */
+		Property getProperty (String name) {
+			Integer index = indices.get(name);
+			// If a property is not found, try prepending `_` for reserved field names.
+			if (index == null && !name.startsWith("_")) index = underscoreIndices.get(name);
+			if (index == null) return null;
+			return getProperty(index);
+		}
+
+		/** @param keepOrder If true, properties are in field declaration order, superclass fields first. Otherwise they are sorted
+		 *           by name, with "id" and "name" first. Properties that are equal, or for sorting that have the same name, are
+		 *           included once.
+		 * @return A cached array that must not be modified. */
+		Property[] getProperties (boolean keepOrder) {
+			Property[] ordered = keepOrder ? declaredOrder : sortedOrder;
+			if (ordered != null) return ordered;
+			Set<Property> properties = keepOrder ? new LinkedHashSet() : new TreeSet();
+			for (int i = 0, n = fields.length; i < n; i++) {
+				Property property = getProperty(i);
+				if (property != null) properties.add(property);
+			}
+			ordered = properties.toArray(new Property[properties.size()]);
+			if (keepOrder)
+				declaredOrder = ordered;
+			else
+				sortedOrder = ordered;
+			return ordered;
+		}
+
+		/** @return The property for the field at the index, or null if the field is not used. */
+		Property getProperty (int index) {
+			Object property = properties[index];
+			if (property == null) {
+				property = createProperty(type, beanProperties, privateFields, lambdaAccessors, deferredParameterNames,
+					fields[index]);
+				if (property == null) property = NONE;
+				properties[index] = property;
+			}
+			return property == NONE ? null : (Property)property;
+		}
+	}
+
 	static public class MethodProperty extends Property {
 		private final Method setMethod, getMethod;
+		/** Null when reflection is used. */
+		private final Getter getter;
+		private final Setter setter;
+		/** The {@link LambdaAccessors#primitiveSetter(Method) primitive setter}, or null. */
+		private final Object primitiveSetter;
 
 		public MethodProperty (String name, Method setMethod, Method getMethod) {
+			this(name, setMethod, getMethod, false);
+		}
+
+		/** @param lambdaAccessors If true, the methods are called through {@link LambdaAccessors} when possible.
+		 * @see YamlConfig#setLambdaAccessors(boolean) */
+		public MethodProperty (String name, Method setMethod, Method getMethod, boolean lambdaAccessors) {
 			super(getMethod.getDeclaringClass(), name, getMethod.getReturnType(), getMethod.getGenericReturnType());
 			this.setMethod = setMethod;
 			this.getMethod = getMethod;
+			getter = lambdaAccessors ? LambdaAccessors.getter(getMethod) : null;
+			setter = lambdaAccessors && setMethod != null ? LambdaAccessors.setter(setMethod) : null;
+			primitiveSetter = lambdaAccessors && setMethod != null ? LambdaAccessors.primitiveSetter(setMethod) : null;
 		}
 
 		public void set (Object object, Object value) throws Exception {
@@ -224,12 +390,51 @@ class Beans {
 				((DeferredConstruction)object).storeProperty(this, value);
 				return;
 			}
-			setMethod.invoke(object, value);
+			if (setter != null)
+				setter.set(object, value);
+			else
+				setMethod.invoke(object, value);
 		}
 
 		public Object get (Object object) throws Exception {
+			if (getter != null) return getter.get(object);
 			return getMethod.invoke(object);
 		}
+
+		public void setInt (Object object, int value) throws Exception {
+			if (primitiveSetter instanceof IntSetter && !(object instanceof DeferredConstruction))
+				((IntSetter)primitiveSetter).set(object, value);
+			else
+				set(object, value);
+		}
+
+		public void setLong (Object object, long value) throws Exception {
+			if (primitiveSetter instanceof LongSetter && !(object instanceof DeferredConstruction))
+				((LongSetter)primitiveSetter).set(object, value);
+			else
+				set(object, value);
+		}
+
+		public void setFloat (Object object, float value) throws Exception {
+			if (primitiveSetter instanceof FloatSetter && !(object instanceof DeferredConstruction))
+				((FloatSetter)primitiveSetter).set(object, value);
+			else
+				set(object, value);
+		}
+
+		public void setDouble (Object object, double value) throws Exception {
+			if (primitiveSetter instanceof DoubleSetter && !(object instanceof DeferredConstruction))
+				((DoubleSetter)primitiveSetter).set(object, value);
+			else
+				set(object, value);
+		}
+
+		public void setBoolean (Object object, boolean value) throws Exception {
+			if (primitiveSetter instanceof BooleanSetter && !(object instanceof DeferredConstruction))
+				((BooleanSetter)primitiveSetter).set(object, value);
+			else
+				set(object, value);
+		}
 	}
 
 	static public class FieldProperty extends Property {
@@ -251,6 +456,41 @@ class Beans {
 		public Object get (Object object) throws Exception {
 			return field.get(object);
 		}
+
+		public void setInt (Object object, int value) throws Exception {
+			if (getType() != int.class || object instanceof DeferredConstruction)
+				set(object, value);
+			else
+				field.setInt(object, value);
+		}
+
+		public void setLong (Object object, long value) throws Exception {
+			if (getType() != long.class || object instanceof DeferredConstruction)
+				set(object, value);
+			else
+				field.setLong(object, value);
+		}
+
+		public void setFloat (Object object, float value) throws Exception {
+			if (getType() != float.class || object instanceof DeferredConstruction)
+				set(object, value);
+			else
+				field.setFloat(object, value);
+		}
+
+		public void setDouble (Object object, double value) throws Exception {
+			if (getType() != double.class || object instanceof DeferredConstruction)
+				set(object, value);
+			else
+				field.setDouble(object, value);
+		}
+
+		public void setBoolean (Object object, boolean value) throws Exception {
+			if (getType() != boolean.class || object instanceof DeferredConstruction)
+				set(object, value);
+			else
+				field.setBoolean(object, value);
+		}
 	}
 
 	static public abstract class Property implements Comparable<Property> {
@@ -365,5 +605,30 @@ class Beans {
 		abstract public void set (Object object, Object value) throws Exception;
 
 		abstract public Object get (Object object) throws Exception;
+
+		/** Sets an int property without boxing when the property's type is int, otherwise the value is boxed and set. */
+		public void setInt (Object object, int value) throws Exception {
+			set(object, value);
+		}
+
+		/** Sets a long property without boxing when the property's type is long, otherwise the value is boxed and set. */
+		public void setLong (Object object, long value) throws Exception {
+			set(object, value);
+		}
+
+		/** Sets a float property without boxing when the property's type is float, otherwise the value is boxed and set. */
+		public void setFloat (Object object, float value) throws Exception {
+			set(object, value);
+		}
+
+		/** Sets a double property without boxing when the property's type is double, otherwise the value is boxed and set. */
+		public void setDouble (Object object, double value) throws Exception {
+			set(object, value);
+		}
+
+		/** Sets a boolean property without boxing when the property's type is boolean, otherwise the value is boxed and set. */
+		public void setBoolean (Object object, boolean value) throws Exception {
+			set(object, value);
+		}
 	}
 }
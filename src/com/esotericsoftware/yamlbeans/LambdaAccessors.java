@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2008 Nathan Sweet
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR
+ * IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.esotericsoftware.yamlbeans;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** Creates accessors for bean getter and setter methods with LambdaMetafactory, which the JIT can inline the same as a direct
+ * call, avoiding the overhead of {@link Method#invoke(Object, Object...)}. LambdaMetafactory is found reflectively so the
+ * library still runs on Java 7, where no accessors are created and reflection is used. An accessor is also not created for a
+ * static method, a method of a class that is not public, or a class that can't be loaded by the class loader of this class. An
+ * accessor is a generated class, so accessors are cached for each method and shared by all configs.
+ * @see YamlConfig#setLambdaAccessors(boolean)
+ * @author <a href="mailto:misc@n4te.com">Nathan Sweet</a> */
+class LambdaAccessors {
+	static private final Method metafactory;
+	static {
+		Method method = null;
+		try {
+			method = Class.forName("java.lang.invoke.LambdaMetafactory").getMethod("metafactory", Lookup.class, String.class,
+				MethodType.class, MethodType.class, MethodHandle.class, MethodType.class);
+		} catch (Exception ignored) {
+		}
+		metafactory = method;
+	}
+	static private final Object NONE = new Object();
+	static private final Map<Method, Object> getters = new ConcurrentHashMap(), setters = new ConcurrentHashMap(),
+		primitiveSetters = new ConcurrentHashMap();
+
+	private LambdaAccessors () {
+	}
+
+	/** @return May be null. */
+	static Getter getter (Method getMethod) {
+		return (Getter)get(getters, getMethod, Getter.class);
+	}
+
+	/** @return May be null. */
+	static Setter setter (Method setMethod) {
+		return (Setter)get(setters, setMethod, Setter.class);
+	}
+
+	/** Returns an {@link IntSetter}, {@link LongSetter}, {@link FloatSetter}, {@link DoubleSetter} or {@link BooleanSetter} for a
+	 * setter with a parameter of that primitive type.
+	 * @return May be null. */
+	static Object primitiveSetter (Method setMethod) {
+		Class type = setMethod.getParameterTypes()[0];
+		Class interfaceType;
+		if (type == int.class)
+			interfaceType = IntSetter.class;
+		else if (type == long.class)
+			interfaceType = LongSetter.class;
+		else if (type == float.class)
+			interfaceType = FloatSetter.class;
+		else if (type == double.class)
+			interfaceType = DoubleSetter.class;
+		else if (type == boolean.class)
+			interfaceType = BooleanSetter.class;
+		else
+			return null;
+		return get(primitiveSetters, setMethod, interfaceType);
+	}
+
+	static private Object get (Map<Method, Object> cache, Method method, Class interfaceType) {
+		if (metafactory == null) return null;
+		Object accessor = cache.get(method);
+		if (accessor == null) {
+			accessor = create(method, interfaceType);
+			if (accessor == null) accessor = NONE;
+			cache.put(method, accessor);
+		}
+		return accessor == NONE ? null : accessor;
+	}
+
+	static private Object create (Method method, Class interfaceType) {
+		Class type = method.getDeclaringClass();
+		if (Modifier.isStatic(method.getModifiers()) || !Modifier.isPublic(type.getModifiers())) return null;
+		// The generated class is defined by the class loader of this class, so must be able to see every class it uses.
+		if (!isVisible(type) || !isVisible(method.getReturnType())) return null;
+		Class[] parameterTypes = method.getParameterTypes();
+		for (Class parameterType : parameterTypes)
+			if (!isVisible(parameterType)) return null;
+
+		Method interfaceMethod = interfaceType.getMethods()[0];
+		MethodType interfaceMethodType = MethodType.methodType(interfaceMethod.getReturnType(),
+			interfaceMethod.getParameterTypes());
+		// The instantiated type casts the object to the bean class, and boxes or unboxes values as needed.
+		MethodType instantiatedType;
+		if (interfaceType == Getter.class)
+			instantiatedType = MethodType.methodType(wrap(method.getReturnType()), type);
+		else if (interfaceType == Setter.class)
+			instantiatedType = MethodType.methodType(void.class, type, wrap(parameterTypes[0]));
+		else
+			instantiatedType = MethodType.methodType(void.class, type, parameterTypes[0]);
+		try {
+			Lookup lookup = MethodHandles.lookup();
+			CallSite site = (CallSite)metafactory.invoke(null, lookup, interfaceMethod.getName(),
+				MethodType.methodType(interfaceType), interfaceMethodType, lookup.unreflect(method), instantiatedType);
+			return site.getTarget().invokeWithArguments();
+		} catch (Throwable ignored) {
+			return null;
+		}
+	}
+
+	static private Class wrap (Class type) {
+		return MethodType.methodType(type).wrap().returnType();
+	}
+
+	static private boolean isVisible (Class type) {
+		while (type.isArray())
+			type = type.getComponentType();
+		if (type.isPrimitive()) return true;
+		try {
+			return Class.forName(type.getName(), false, LambdaAccessors.class.getClassLoader()) == type;
+		} catch (ClassNotFoundException ex) {
+			return false;
+		}
+	}
+
+	interface Getter {
+		abstract public Object get (Object object);
+	}
+
+	interface Setter {
+		abstract public void set (Object object, Object value);
+	}
+
+	interface IntSetter {
+		abstract public void set (Object object, int value);
+	}
+
+	interface LongSetter {
+		abstract public void set (Object object, long value);
+	}
+
+	interface FloatSetter {
+		abstract public void set (Object object, float value);
+	}
+
+	interface DoubleSetter {
+		abstract public void set (Object object, double value);
+	}
+
+	interface BooleanSetter {
+		abstract public void set (Object object, boolean value);
+	}
+}
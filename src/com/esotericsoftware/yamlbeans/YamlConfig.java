@@ -23,12 +23,20 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 
+import com.esotericsoftware.yamlbeans.Beans.ClassInfo;
 import com.esotericsoftware.yamlbeans.Beans.Property;
 import com.esotericsoftware.yamlbeans.emitter.EmitterConfig;
 import com.esotericsoftware.yamlbeans.scalar.DateSerializer;
+import com.esotericsoftware.yamlbeans.scalar.JavaTimeSerializer;
+import com.esotericsoftware.yamlbeans.scalar.ScalarResolver;
 import com.esotericsoftware.yamlbeans.scalar.ScalarSerializer;
+import com.esotericsoftware.yamlbeans.scalar.SchemaResolver;
+import com.esotericsoftware.yamlbeans.tokenizer.Tokenizer;
 
 /** Stores configuration for reading and writing YAML.
  * @author <a href="mailto:misc@n4te.com">Nathan Sweet</a> */
@@ -41,17 +49,41 @@ public class YamlConfig {
 
 	final Map<String, String> classNameToTag = new HashMap();
 	final Map<String, Class> tagToClass = new HashMap();
-	final Map<Class, ScalarSerializer> scalarSerializers = new IdentityHashMap();
+	/** In the order the serializers were set. */
+	final Map<Class, ScalarSerializer> scalarSerializers = new LinkedHashMap();
+	/** The result of {@link #getScalarSerializer(Class)} for each class it was called with, {@link #NO_SERIALIZER} for none. */
+	private final Map<Class, Object> resolvedScalarSerializers = new ConcurrentHashMap();
 	final Map<Property, Class> propertyToElementType = new HashMap();
 	final Map<Property, Class> propertyToDefaultType = new HashMap();
+	/** Binding metadata computed per class, shared by all readers and writers using this config. */
+	final Map<Class, ClassInfo> classInfos = new ConcurrentHashMap();
 	boolean beanProperties = true;
 	boolean privateFields;
 	boolean privateConstructors = true;
+	boolean lambdaAccessors;
 	boolean allowDuplicates = true;
 	String tagSuffix;
 
+	static private final Object NO_SERIALIZER = new Object();
+
+	/** Serializers for the java.time classes that are available, set by default. */
+	static private final Map<Class, ScalarSerializer> javaTimeSerializers = new LinkedHashMap();
+	static {
+		String[] names = {"java.time.Instant", "java.time.LocalDate", "java.time.LocalDateTime", "java.time.OffsetDateTime",
+			"java.time.Duration"};
+		for (String name : names) {
+			try {
+				Class type = Class.forName(name);
+				javaTimeSerializers.put(type, new JavaTimeSerializer(type));
+			} catch (ClassNotFoundException ignored) {
+				// Before Java 8.
+			}
+		}
+	}
+
 	public YamlConfig () {
 		scalarSerializers.put(Date.class, new DateSerializer());
+		scalarSerializers.putAll(javaTimeSerializers);
 
 		tagToClass.put("tag:yaml.org,2002:str", String.class);
 		tagToClass.put("tag:yaml.org,2002:int", Integer.class);
@@ -79,6 +111,33 @@ public class YamlConfig {
 		if (type == null) throw new IllegalArgumentException("type cannot be null.");
 		if (serializer == null) throw new IllegalArgumentException("serializer cannot be null.");
 		scalarSerializers.put(type, serializer);
+		resolvedScalarSerializers.clear();
+	}
+
+	/** Returns the serializer set for the type or, if none, for its most specific superclass or interface that has one. If
+	 * several unrelated supertypes have serializers, the one set first is used. The result is cached per type.
+	 * @return May be null. */
+	ScalarSerializer getScalarSerializer (Class type) {
+		Object serializer = resolvedScalarSerializers.get(type);
+		if (serializer == null) {
+			serializer = NO_SERIALIZER;
+			for (Entry<Class, ScalarSerializer> entry : scalarSerializers.entrySet()) {
+				Class candidate = entry.getKey();
+				if (candidate.isAssignableFrom(type) && !hasMoreSpecificSerializer(candidate, type)) {
+					serializer = entry.getValue();
+					break;
+				}
+			}
+			resolvedScalarSerializers.put(type, serializer);
+		}
+		return serializer == NO_SERIALIZER ? null : (ScalarSerializer)serializer;
+	}
+
+	/** Returns true if a serializer is set for a subtype of the candidate that the type is assignable to. */
+	private boolean hasMoreSpecificSerializer (Class candidate, Class type) {
+		for (Class other : scalarSerializers.keySet())
+			if (other != candidate && candidate.isAssignableFrom(other) && other.isAssignableFrom(type)) return true;
+		return false;
 	}
 
 	/** Sets the default type of elements in a Collection or Map property. No tag will be output for elements of this type. This
@@ -125,6 +184,14 @@ public class YamlConfig {
 		this.privateConstructors = privateConstructors;
 	}
 
+	/** If true, bean property getter and setter methods are called through accessors generated with LambdaMetafactory rather
+	 * than reflection, and setters for int, long, float, double and boolean values are called without boxing. This requires Java
+	 * 8 or later. Reflection is still used for fields, on older JVMs, and for methods an accessor can't be generated for, such as
+	 * those of a class that is not public. Default is false. */
+	public void setLambdaAccessors (boolean lambdaAccessors) {
+		this.lambdaAccessors = lambdaAccessors;
+	}
+
 	/** When not null, YAML read into a {@link Map} stores any value tags using key + tagSuffix, and when writing YAML the value
 	 * tags are output. Key tags are not stored in the map. Default is null. */
 	public void setTagSuffix (String tagSuffix) {
@@ -267,7 +334,11 @@ public class YamlConfig {
 		boolean autoMerge = true;
 		boolean classTags = true;
 		boolean guessNumberTypes;
+		ScalarResolver scalarResolver;
 		boolean anchors = true;
+		int bufferSize = Tokenizer.DEFAULT_BUFFER_SIZE;
+		boolean scalarSlices;
+		boolean lazyPosition;
 
 		ReadConfig () {
 		}
@@ -322,10 +393,41 @@ public class YamlConfig {
 			this.guessNumberTypes = guessNumberTypes;
 		}
 
+		/** Sets how plain scalars without a tag are read when the type is unknown, such as the values of a Map. When set, quoted
+		 * scalars are always read as strings and {@link #setGuessNumberTypes(boolean)} is not used. Default is null, which reads
+		 * scalars as strings, or as numbers if guessNumberTypes is true.
+		 * @param scalarResolver May be null.
+		 * @see SchemaResolver */
+		public void setScalarResolver (ScalarResolver scalarResolver) {
+			this.scalarResolver = scalarResolver;
+		}
+
 		/** When false, anchors in the YAML are ignored. Default is true. */
 		public void setAnchors (boolean anchors) {
 			this.anchors = anchors;
 		}
+
+		/** Sets the number of characters read from the input at a time. Larger values mean fewer reads for large documents,
+		 * smaller values less memory for many small documents. Default is 1024. */
+		public void setBufferSize (int bufferSize) {
+			if (bufferSize < 1) throw new IllegalArgumentException("bufferSize must be greater than 0: " + bufferSize);
+			this.bufferSize = bufferSize;
+		}
+
+		/** When true, plain scalar values are kept as slices of the input until their String is needed, which avoids creating
+		 * Strings for values that are skipped or converted. Input that has been sliced is retained while its slices are referenced.
+		 * Default is false.
+		 * @see Tokenizer#setScalarSlices(boolean) */
+		public void setScalarSlices (boolean scalarSlices) {
+			this.scalarSlices = scalarSlices;
+		}
+
+		/** When true, lines are counted only as line breaks are scanned and the column is computed from the start of the line,
+		 * rather than both being updated for every character read. Error messages report the same positions. Default is false.
+		 * @see Tokenizer#setLazyPosition(boolean) */
+		public void setLazyPosition (boolean lazyPosition) {
+			this.lazyPosition = lazyPosition;
+		}
 	}
 
 	static class ConstructorParameters {
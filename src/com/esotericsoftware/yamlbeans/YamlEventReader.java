@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2008 Nathan Sweet
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR
+ * IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.esotericsoftware.yamlbeans;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+
+import com.esotericsoftware.yamlbeans.parser.Event;
+import com.esotericsoftware.yamlbeans.parser.Parser;
+import com.esotericsoftware.yamlbeans.parser.Parser.ParserException;
+import com.esotericsoftware.yamlbeans.tokenizer.Tokenizer;
+import com.esotericsoftware.yamlbeans.tokenizer.Tokenizer.TokenizerException;
+
+/** Reads YAML one event at a time, without deserializing it into objects. Values that aren't needed can be skipped with
+ * {@link #skipValue()}, which doesn't create events or scalar Strings for them, so a few values can be pulled out of a large
+ * document cheaply.
+ * @author <a href="mailto:misc@n4te.com">Nathan Sweet</a> */
+public class YamlEventReader implements AutoCloseable {
+	private final Parser parser;
+	private int depth;
+
+	public YamlEventReader (Reader reader) {
+		this(reader, new YamlConfig());
+	}
+
+	public YamlEventReader (Reader reader, YamlConfig config) {
+		this(new Tokenizer(reader, config.readConfig.bufferSize), config);
+	}
+
+	public YamlEventReader (String yaml) {
+		this(new StringReader(yaml));
+	}
+
+	public YamlEventReader (String yaml, YamlConfig config) {
+		this(new StringReader(yaml), config);
+	}
+
+	/** Reads UTF-8 from the stream. */
+	public YamlEventReader (InputStream input) {
+		this(input, new YamlConfig());
+	}
+
+	/** Reads UTF-8 from the stream. */
+	public YamlEventReader (InputStream input, YamlConfig config) {
+		this(new Tokenizer(input, config.readConfig.bufferSize), config);
+	}
+
+	private YamlEventReader (Tokenizer tokenizer, YamlConfig config) {
+		tokenizer.setScalarSlices(config.readConfig.scalarSlices);
+		tokenizer.setLazyPosition(config.readConfig.lazyPosition);
+		parser = new Parser(tokenizer, config.readConfig.defaultVersion);
+	}
+
+	/** Returns the next event and moves past it.
+	 * @return May be null after the stream end event. */
+	public Event next () throws YamlException {
+		try {
+			Event event = parser.getNextEvent();
+			if (event != null) {
+				switch (event.type) {
+				case SEQUENCE_START:
+				case MAPPING_START:
+					depth++;
+					break;
+				case SEQUENCE_END:
+				case MAPPING_END:
+					depth--;
+					break;
+				}
+			}
+			return event;
+		} catch (ParserException ex) {
+			throw new YamlException("Error parsing YAML.", ex);
+		} catch (TokenizerException ex) {
+			throw new YamlException("Error tokenizing YAML.", ex);
+		}
+	}
+
+	/** Returns the next event without moving past it.
+	 * @return May be null after the stream end event. */
+	public Event peek () throws YamlException {
+		try {
+			return parser.peekNextEvent();
+		} catch (ParserException ex) {
+			throw new YamlException("Error parsing YAML.", ex);
+		} catch (TokenizerException ex) {
+			throw new YamlException("Error tokenizing YAML.", ex);
+		}
+	}
+
+	/** Moves past the next value: a scalar, an alias or a whole sequence or mapping, including everything it contains. The
+	 * skipped input is still tokenized, but no events are created for it and scalars are not copied into Strings. If the value's
+	 * first event has been {@link #peek() peeked}, it was already created.
+	 * @throws YamlException if the next event is not the start of a value, such as the end of a mapping. */
+	public void skipValue () throws YamlException {
+		try {
+			if (!parser.skipNode()) {
+				Event event = parser.peekNextEvent();
+				throw new YamlException("Expected a value but found: " + (event == null ? "end of stream" : event.type));
+			}
+		} catch (ParserException ex) {
+			throw new YamlException("Error parsing YAML.", ex);
+		} catch (TokenizerException ex) {
+			throw new YamlException("Error tokenizing YAML.", ex);
+		}
+	}
+
+	/** Returns the number of sequences and mappings that have been started by the events returned from {@link #next()} and not
+	 * yet ended. For example, this is 1 after the start of a document's root mapping is returned and 0 after its end. */
+	public int currentDepth () {
+		return depth;
+	}
+
+	public int getLineNumber () {
+		return parser.getLineNumber();
+	}
+
+	public int getColumn () {
+		return parser.getColumn();
+	}
+
+	/** Discards all state and begins reading the specified reader. The previous reader is not closed. */
+	public void reset (Reader reader) {
+		parser.reset(reader);
+		depth = 0;
+	}
+
+	public void close () throws IOException {
+		parser.close();
+	}
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2008 Nathan Sweet
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR
+ * IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.esotericsoftware.yamlbeans;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+
+/** Reads and writes YAML using a single config and can be shared by any number of threads. Each thread reuses its own
+ * {@link YamlReader} and {@link YamlWriter}, which are {@link YamlReader#reset(Reader) reset} for each call, so reading or
+ * writing a small document does not construct a new tokenizer, parser or emitter. The config must not be modified after the
+ * mapper is constructed.
+ * <p>
+ * The pooled instances are held by thread locals, so a mapper should be long lived and shared rather than created per call.
+ * @author <a href="mailto:misc@n4te.com">Nathan Sweet</a> */
+public class YamlMapper {
+	/** Strings written with {@link #write(Object)} that are larger than this are not kept for the thread's next call. */
+	static private final int MAX_POOLED_CHARS = 64 * 1024;
+
+	private final YamlConfig config;
+	private final ThreadLocal<Pool> pools = new ThreadLocal<Pool>() {
+		protected Pool initialValue () {
+			return new Pool();
+		}
+	};
+
+	public YamlMapper () {
+		this(new YamlConfig());
+	}
+
+	public YamlMapper (YamlConfig config) {
+		if (config == null) throw new IllegalArgumentException("config cannot be null.");
+		this.config = config;
+	}
+
+	public YamlConfig getConfig () {
+		return config;
+	}
+
+	/** @see YamlReader#read(Class) */
+	public <T> T read (String yaml, Class<T> type) throws YamlException {
+		if (yaml == null) throw new IllegalArgumentException("yaml cannot be null.");
+		return read(new StringReader(yaml), type);
+	}
+
+	/** Reads the first YAML document from the reader. The reader is not closed.
+	 * @see YamlReader#read(Class) */
+	public <T> T read (Reader reader, Class<T> type) throws YamlException {
+		if (reader == null) throw new IllegalArgumentException("reader cannot be null.");
+		Pool pool = pools.get();
+		YamlReader yamlReader = pool.reader;
+		// Reading can reenter the mapper, eg from a scalar serializer, so the pooled reader is taken while it is in use.
+		if (yamlReader == null)
+			yamlReader = new YamlReader(reader, config);
+		else {
+			pool.reader = null;
+			yamlReader.reset(reader);
+		}
+		try {
+			return yamlReader.read(type);
+		} finally {
+			yamlReader.reset(EMPTY);
+			pool.reader = yamlReader;
+		}
+	}
+
+	/** Returns the object as a YAML document. */
+	public String write (Object object) throws YamlException {
+		Pool pool = pools.get();
+		StringWriter buffer = pool.buffer;
+		if (buffer == null)
+			buffer = new StringWriter();
+		else {
+			pool.buffer = null;
+			buffer.getBuffer().setLength(0);
+		}
+		write(object, buffer);
+		String yaml = buffer.toString();
+		if (buffer.getBuffer().capacity() <= MAX_POOLED_CHARS) pool.buffer = buffer;
+		return yaml;
+	}
+
+	/** Writes the object as a YAML document. The writer is flushed but not closed. */
+	public void write (Object object, Writer writer) throws YamlException {
+		if (writer == null) throw new IllegalArgumentException("writer cannot be null.");
+		Pool pool = pools.get();
+		YamlWriter yamlWriter = pool.writer;
+		if (yamlWriter == null)
+			yamlWriter = new YamlWriter(writer, config);
+		else {
+			pool.writer = null;
+			yamlWriter.reset(writer);
+		}
+		try {
+			yamlWriter.write(object);
+			yamlWriter.finish();
+		} finally {
+			yamlWriter.reset(NULL_WRITER);
+			pool.writer = yamlWriter;
+		}
+	}
+
+	/** The instances reused by one thread. A field is null while its instance is in use. */
+	static private class Pool {
+		YamlReader reader;
+		YamlWriter writer;
+		StringWriter buffer;
+	}
+
+	static private final Reader EMPTY = new Reader() {
+		public int read (char[] buffer, int offset, int length) {
+			return -1;
+		}
+
+		public void close () {
+		}
+	};
+
+	/** Used by idle writers so they don't reference the last writer. It is never written to. */
+	static private final Writer NULL_WRITER = new StringWriter(0);
+}
@@ -20,11 +20,15 @@ import static com.esotericsoftware.yamlbeans.parser.EventType.*;
 
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.lang.reflect.Array;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -37,11 +41,12 @@ import com.esotericsoftware.yamlbeans.Beans.Property;
 import com.esotericsoftware.yamlbeans.parser.AliasEvent;
 import com.esotericsoftware.yamlbeans.parser.CollectionStartEvent;
 import com.esotericsoftware.yamlbeans.parser.Event;
-import com.esotericsoftware.yamlbeans.parser.EventType;
 import com.esotericsoftware.yamlbeans.parser.Parser;
 import com.esotericsoftware.yamlbeans.parser.Parser.ParserException;
 import com.esotericsoftware.yamlbeans.parser.ScalarEvent;
+import com.esotericsoftware.yamlbeans.scalar.ScalarResolver;
 import com.esotericsoftware.yamlbeans.scalar.ScalarSerializer;
+import com.esotericsoftware.yamlbeans.tokenizer.Tokenizer;
 import com.esotericsoftware.yamlbeans.tokenizer.Tokenizer.TokenizerException;
 
 /** Deserializes Java objects from YAML.
@@ -50,14 +55,27 @@ public class YamlReader implements AutoCloseable {
 	private final YamlConfig config;
 	Parser parser;
 	private final Map<String, Object> anchors = new HashMap();
+	/** The result of {@link #findTagClass(String, ClassLoader)} for recently seen tags, {@link #NO_TAG_CLASS} if it returned null
+	 * or {@link #TAG_CLASS_NOT_FOUND} if it threw ClassNotFoundException. Least recently used tags are evicted. */
+	private final Map<String, Object> tagClasses = new LinkedHashMap(16, 0.75f, true) {
+		protected boolean removeEldestEntry (Entry eldest) {
+			return size() > MAX_TAG_CLASSES;
+		}
+	};
+	/** The class loader {@link #tagClasses} was computed with. */
+	private ClassLoader tagClassLoader;
+	/** True if a subclass overrides {@link #readValue(Class, Class, Class)}, so every value must be read through it. */
+	private final boolean readValueOverridden;
+
+	static private final int MAX_TAG_CLASSES = 256;
+	static private final Object NO_TAG_CLASS = new Object(), TAG_CLASS_NOT_FOUND = new Object();
 
 	public YamlReader (Reader reader) {
 		this(reader, new YamlConfig());
 	}
 
 	public YamlReader (Reader reader, YamlConfig config) {
-		this.config = config;
-		parser = new Parser(reader, config.readConfig.defaultVersion);
+		this(new Tokenizer(reader, config.readConfig.bufferSize), config);
 	}
 
 	public YamlReader (String yaml) {
@@ -68,6 +86,80 @@ public class YamlReader implements AutoCloseable {
 		this(new StringReader(yaml), config);
 	}
 
+	/** Reads UTF-8 from the stream. The bytes are decoded directly into the tokenizer's input window rather than through an
+	 * InputStreamReader. */
+	public YamlReader (InputStream input) {
+		this(input, new YamlConfig());
+	}
+
+	/** Reads UTF-8 from the stream. The bytes are decoded directly into the tokenizer's input window rather than through an
+	 * InputStreamReader. */
+	public YamlReader (InputStream input, YamlConfig config) {
+		this(new Tokenizer(input, config.readConfig.bufferSize), config);
+	}
+
+	/** Reads UTF-8 from the bytes, which must not be modified while the reader is in use. */
+	public YamlReader (byte[] yaml) {
+		this(yaml, new YamlConfig());
+	}
+
+	/** Reads UTF-8 from the bytes, which must not be modified while the reader is in use. */
+	public YamlReader (byte[] yaml, YamlConfig config) {
+		this(new Tokenizer(yaml, config.readConfig.bufferSize), config);
+	}
+
+	/** Reads UTF-8 from the file by memory mapping it, so the file is never read into the heap as a whole. Documents are parsed as they are
+	 * read, so {@link #readAll(Class)} streams multi-document files. Closing the reader closes the file.
+	 * @see #fromMapped(FileChannel, YamlConfig) */
+	static public YamlReader fromFile (Path path) throws IOException {
+		return fromFile(path, new YamlConfig());
+	}
+
+	/** Reads UTF-8 from the file by memory mapping it, so the file is never read into the heap as a whole. Closing the reader closes the file.
+	 * @see #fromMapped(FileChannel, YamlConfig) */
+	static public YamlReader fromFile (Path path, YamlConfig config) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+		try {
+			return fromMapped(channel, config);
+		} catch (IOException ex) {
+			channel.close();
+			throw ex;
+		}
+	}
+
+	/** Reads UTF-8 from the channel's position to the end of the file by memory mapping it, so the file is never read into the heap
+	 * as a whole. The file is mapped in regions of up to 256MB, so files larger than 2GB can be read. A region is released once it
+	 * has been read, but is only unmapped when it is garbage collected. Closing the reader closes the channel. */
+	static public YamlReader fromMapped (FileChannel channel) throws IOException {
+		return fromMapped(channel, new YamlConfig());
+	}
+
+	/** Reads UTF-8 from the channel's position to the end of the file by memory mapping it, so the file is never read into the heap
+	 * as a whole. The file is mapped in regions of up to 256MB, so files larger than 2GB can be read. A region is released once it
+	 * has been read, but is only unmapped when it is garbage collected. Closing the reader closes the channel. */
+	static public YamlReader fromMapped (FileChannel channel, YamlConfig config) throws IOException {
+		return new YamlReader(new Tokenizer(channel, config.readConfig.bufferSize), config);
+	}
+
+	private YamlReader (Tokenizer tokenizer, YamlConfig config) {
+		this.config = config;
+		tokenizer.setScalarSlices(config.readConfig.scalarSlices);
+		tokenizer.setLazyPosition(config.readConfig.lazyPosition);
+		parser = new Parser(tokenizer, config.readConfig.defaultVersion);
+		readValueOverridden = isReadValueOverridden(getClass());
+	}
+
+	static private boolean isReadValueOverridden (Class type) {
+		for (; type != YamlReader.class; type = type.getSuperclass()) {
+			try {
+				type.getDeclaredMethod("readValue", Class.class, Class.class, Class.class);
+				return true;
+			} catch (NoSuchMethodException ignored) {
+			}
+		}
+		return false;
+	}
+
 	public YamlConfig getConfig () {
 		return config;
 	}
@@ -87,6 +179,13 @@ public class YamlReader implements AutoCloseable {
 		anchors.clear();
 	}
 
+	/** Discards all state and begins reading the specified reader, so one YamlReader can be reused for many streams with the same
+	 * config. The previous reader is not closed. */
+	public void reset (Reader reader) {
+		parser.reset(reader);
+		anchors.clear();
+	}
+
 	/** Reads the next YAML document and deserializes it into an object. The type of object is defined by the YAML tag. If there is
 	 * no YAML tag, the object will be an {@link ArrayList}, {@link HashMap}, or String.
 	 * <p>
@@ -185,19 +284,30 @@ public class YamlReader implements AutoCloseable {
 
 			ClassLoader classLoader = (config.readConfig.classLoader == null ? this.getClass().getClassLoader()
 				: config.readConfig.classLoader);
+			if (classLoader != tagClassLoader) {
+				tagClasses.clear();
+				tagClassLoader = classLoader;
+			}
 
-			tag = tag.replace("!", "");
-			try {
-				Class<?> loadedFromTag = findTagClass(tag, classLoader);
-				if (loadedFromTag != null) {
-					if (providedType != null && !providedType.isAssignableFrom(loadedFromTag)) {
-						throw new YamlReaderException("Class specified by tag is incompatible with expected type: "
-							+ loadedFromTag.getName() + " (expected " + providedType.getName() + ")");
-					}
-					return loadedFromTag;
+			Object tagClass = tagClasses.get(tag);
+			if (tagClass == null) {
+				try {
+					tagClass = findTagClass(tag.replace("!", ""), classLoader);
+					if (tagClass == null) tagClass = NO_TAG_CLASS;
+				} catch (ClassNotFoundException e) {
+					tagClass = TAG_CLASS_NOT_FOUND;
+				}
+				tagClasses.put(tag, tagClass);
+			}
+			if (tagClass == TAG_CLASS_NOT_FOUND)
+				throw new YamlReaderException("Unable to find class specified by tag: " + tag.replace("!", ""));
+			if (tagClass != NO_TAG_CLASS) {
+				Class<?> loadedFromTag = (Class)tagClass;
+				if (providedType != null && !providedType.isAssignableFrom(loadedFromTag)) {
+					throw new YamlReaderException("Class specified by tag is incompatible with expected type: "
+						+ loadedFromTag.getName() + " (expected " + providedType.getName() + ")");
 				}
-			} catch (ClassNotFoundException e) {
-				throw new YamlReaderException("Unable to find class specified by tag: " + tag);
+				return loadedFromTag;
 			}
 		}
 
@@ -222,7 +332,10 @@ public class YamlReader implements AutoCloseable {
 	 * } and never returns null.
 	 * <p>
 	 * You can override this to handle cases where you do not want to respect the type tags found in a document, eg if they were
-	 * output by another program using classes that do not exist on your classpath. */
+	 * output by another program using classes that do not exist on your classpath.
+	 * <p>
+	 * The result, including null or a ClassNotFoundException, is remembered for each tag, so this is called once per tag for as
+	 * long as the class loader is unchanged. */
 	protected Class<?> findTagClass (String tag, ClassLoader classLoader) throws ClassNotFoundException {
 		return Class.forName(tag, true, classLoader);
 	}
@@ -241,7 +354,7 @@ public class YamlReader implements AutoCloseable {
 			throw new YamlReaderException("Expected scalar for primitive type '" + type.getClass() + "' but found: " + event.type);
 		}
 
-		String value = ((ScalarEvent) event).value;
+		String value = ((ScalarEvent) event).getValue();
 		try {
 			Object convertedValue;
 			if (value == null) {
@@ -285,8 +398,17 @@ public class YamlReader implements AutoCloseable {
 				type = LinkedHashMap.class;
 				break;
 			case SCALAR:
-				if (config.readConfig.guessNumberTypes) {
-					String value = ((ScalarEvent)event).value;
+				ScalarResolver resolver = config.readConfig.scalarResolver;
+				if (resolver != null) {
+					ScalarEvent scalar = (ScalarEvent)event;
+					if (scalar.style == 0 && scalar.tag == null && scalar.getChars() != null) {
+						Object value = resolver.resolve(scalar.getValue());
+						if (anchor != null) addAnchor(anchor, value);
+						parser.getNextEvent();
+						return value;
+					}
+				} else if (config.readConfig.guessNumberTypes) {
+					String value = ((ScalarEvent)event).getValue();
 					if (value != null) {
 						Number number = parseNumber(value);
 						if (number != null) {
@@ -310,22 +432,20 @@ public class YamlReader implements AutoCloseable {
 			return readScalarValue(type, anchor);
 		}
 
-		for (Entry<Class, ScalarSerializer> entry : config.scalarSerializers.entrySet()) {
-			if (entry.getKey().isAssignableFrom(type)) {
-				ScalarSerializer serializer = entry.getValue();
-				Event event = parser.getNextEvent();
-				if (event.type != SCALAR) throw new YamlReaderException("Expected scalar for type '" + type
-					+ "' to be deserialized by scalar serializer '" + serializer.getClass().getName() + "' but found: " + event.type);
-				Object value = serializer.read(((ScalarEvent)event).value);
-				if (anchor != null) addAnchor(anchor, value);
-				return value;
-			}
+		ScalarSerializer serializer = config.getScalarSerializer(type);
+		if (serializer != null) {
+			Event event = parser.getNextEvent();
+			if (event.type != SCALAR) throw new YamlReaderException("Expected scalar for type '" + type
+				+ "' to be deserialized by scalar serializer '" + serializer.getClass().getName() + "' but found: " + event.type);
+			Object value = serializer.read(((ScalarEvent)event).getValue());
+			if (anchor != null) addAnchor(anchor, value);
+			return value;
 		}
 
 		if (Enum.class.isAssignableFrom(type)) {
 			Event event = parser.getNextEvent();
 			if (event.type != SCALAR) throw new YamlReaderException("Expected scalar for enum type but found: " + event.type);
-			String enumValueName = ((ScalarEvent)event).value;
+			String enumValueName = ((ScalarEvent)event).getValue();
 			if (enumValueName == null) return null;
 			try {
 				return Enum.valueOf(type, enumValueName);
@@ -394,17 +514,8 @@ public class YamlReader implements AutoCloseable {
 						Property property = Beans.getProperty(type, (String)key, config.beanProperties, config.privateFields, config);
 						if (property == null) {
 							if (config.readConfig.ignoreUnknownProperties) {
-								// if next event is sequence, mapping... start, go though all of it until
-								// corresponding sequence, mapping... end
-								Event nextEvent = parser.peekNextEvent();
-								EventType nextType = nextEvent.type;
-								if (nextType == SEQUENCE_START || nextType == MAPPING_START) {
-									skipRange();
-								} else {
-									// go though the next event, because this is a value of missing property
-									parser.getNextEvent();
-								}
-
+								// Skip the value of the missing property, including any sequences or mappings it contains.
+								parser.skipNode();
 								continue;
 							}
 							throw new YamlReaderException("Unable to find property '" + key + "' on class: " + type.getName());
@@ -412,7 +523,11 @@ public class YamlReader implements AutoCloseable {
 						Class propertyElementType = config.propertyToElementType.get(property);
 						if (propertyElementType == null) propertyElementType = property.getElementType();
 						Class propertyDefaultType = config.propertyToDefaultType.get(property);
-						if (!isExplicitKey) value = readValue(property.getType(), propertyElementType, propertyDefaultType);
+						if (!isExplicitKey) {
+							if (propertyDefaultType == null && property.getType().isPrimitive() && readPrimitive(object, property))
+								continue;
+							value = readValue(property.getType(), propertyElementType, propertyDefaultType);
+						}
 						property.set(object, value);
 					} catch (Exception ex) {
 						if (ex instanceof YamlReaderException) throw (YamlReaderException)ex;
@@ -433,10 +548,15 @@ public class YamlReader implements AutoCloseable {
 		case SEQUENCE_START: {
 			// Must be a collection or an array.
 			event = parser.getNextEvent();
+			if (type.isArray() && type.getComponentType().isPrimitive()) {
+				Object array = readPrimitiveArray(type.getComponentType());
+				if (anchor != null) addAnchor(anchor, array);
+				return array;
+			}
 			Collection collection;
 			if (Collection.class.isAssignableFrom(type)) {
 				try {
-					collection = (Collection)Beans.createObject(type, config.privateConstructors);
+					collection = (Collection)Beans.createObject(type, config);
 				} catch (InvocationTargetException ex) {
 					throw new YamlReaderException("Error creating object.", ex);
 				}
@@ -467,6 +587,210 @@ public class YamlReader implements AutoCloseable {
 		}
 	}
 
+	/** Sets an int, long, float, double or boolean property directly from the characters of the next scalar, without creating a
+	 * String or boxing the value.
+	 * @return false if the next event is not an untagged, unanchored scalar in a simple decimal form, or if
+	 *         {@link #readValue(Class, Class, Class)} is overridden. Nothing is read and the value must be read as usual, which
+	 *         gives the same result or error for any other form. */
+	private boolean readPrimitive (Object object, Property property) throws Exception {
+		if (readValueOverridden) return false;
+		CharSequence chars = peekPlainChars();
+		if (chars == null) return false;
+		Class type = property.getType();
+		if (type == int.class) {
+			long value = parseLong(chars, 9);
+			if (value == Long.MIN_VALUE) return false;
+			parser.getNextEvent();
+			property.setInt(object, (int)value);
+		} else if (type == long.class) {
+			long value = parseLong(chars, 18);
+			if (value == Long.MIN_VALUE) return false;
+			parser.getNextEvent();
+			property.setLong(object, value);
+		} else if (type == double.class) {
+			double value = parseDouble(chars, false);
+			if (Double.isNaN(value)) return false;
+			parser.getNextEvent();
+			property.setDouble(object, value);
+		} else if (type == float.class) {
+			double value = parseDouble(chars, true);
+			if (Double.isNaN(value)) return false;
+			parser.getNextEvent();
+			property.setFloat(object, (float)value);
+		} else if (type == boolean.class) {
+			parser.getNextEvent();
+			property.setBoolean(object, isTrue(chars));
+		} else
+			return false;
+		return true;
+	}
+
+	/** Reads the rest of a sequence into an array of the primitive type, growing the array directly rather than collecting boxed
+	 * elements. Elements in a simple decimal form are parsed from the scalar characters, anything else is read as usual and
+	 * stored with {@link Array#set(Object, int, Object)}, as for other arrays. */
+	private Object readPrimitiveArray (Class componentType) throws YamlException, ParserException, TokenizerException {
+		Object array = Array.newInstance(componentType, 16);
+		int size = 0, capacity = 16;
+		while (true) {
+			if (parser.peekNextEvent().type == SEQUENCE_END) {
+				parser.getNextEvent();
+				break;
+			}
+			if (size == capacity) {
+				capacity = capacity * 3 / 2;
+				Object newArray = Array.newInstance(componentType, capacity);
+				System.arraycopy(array, 0, newArray, 0, size);
+				array = newArray;
+			}
+			if (!readPrimitiveElement(array, size)) Array.set(array, size, readValue(componentType, null, null));
+			size++;
+		}
+		if (size == capacity) return array;
+		Object newArray = Array.newInstance(componentType, size);
+		System.arraycopy(array, 0, newArray, 0, size);
+		return newArray;
+	}
+
+	/** Stores the next scalar in an int, long, float, double or boolean array without creating a String or boxing the value.
+	 * @return false if nothing was read, see {@link #readPrimitive(Object, Property)}. */
+	private boolean readPrimitiveElement (Object array, int index) throws ParserException, TokenizerException {
+		if (readValueOverridden) return false;
+		CharSequence chars = peekPlainChars();
+		if (chars == null) return false;
+		if (array instanceof int[]) {
+			long value = parseLong(chars, 9);
+			if (value == Long.MIN_VALUE) return false;
+			((int[])array)[index] = (int)value;
+		} else if (array instanceof long[]) {
+			long value = parseLong(chars, 18);
+			if (value == Long.MIN_VALUE) return false;
+			((long[])array)[index] = value;
+		} else if (array instanceof double[]) {
+			double value = parseDouble(chars, false);
+			if (Double.isNaN(value)) return false;
+			((double[])array)[index] = value;
+		} else if (array instanceof float[]) {
+			double value = parseDouble(chars, true);
+			if (Double.isNaN(value)) return false;
+			((float[])array)[index] = (float)value;
+		} else if (array instanceof boolean[])
+			((boolean[])array)[index] = isTrue(chars);
+		else
+			return false;
+		parser.getNextEvent();
+		return true;
+	}
+
+	/** Returns the characters of the next event if it is a scalar without a tag or anchor, otherwise null. The event is not
+	 * consumed. */
+	private CharSequence peekPlainChars () throws ParserException, TokenizerException {
+		Event event = parser.peekNextEvent();
+		if (event.type != SCALAR) return null;
+		ScalarEvent scalar = (ScalarEvent)event;
+		if (scalar.tag != null || scalar.anchor != null) return null;
+		return scalar.getChars();
+	}
+
+	/** Parses an optionally signed decimal integer with no leading zeros, the subset of what {@link Long#decode(String)} accepts
+	 * that can't be mistaken for octal or hex.
+	 * @param maxDigits At most 18, so the value can't overflow.
+	 * @return {@link Long#MIN_VALUE} if the characters are not in that form or have more than maxDigits digits. */
+	static private long parseLong (CharSequence chars, int maxDigits) {
+		int n = chars.length(), i = 0;
+		if (n == 0) return Long.MIN_VALUE;
+		char c = chars.charAt(0);
+		boolean negative = c == '-';
+		if (negative || c == '+') i++;
+		int digits = n - i;
+		if (digits == 0 || digits > maxDigits) return Long.MIN_VALUE;
+		if (chars.charAt(i) == '0' && digits > 1) return Long.MIN_VALUE;
+		long value = 0;
+		for (; i < n; i++) {
+			c = chars.charAt(i);
+			if (c < '0' || c > '9') return Long.MIN_VALUE;
+			value = value * 10 + (c - '0');
+		}
+		return negative ? -value : value;
+	}
+
+	/** Parses a decimal number with an optional sign, fraction and exponent, the subset of what {@link Double#parseDouble(String)}
+	 * accepts that can be computed exactly: the significant digits fit in a long that is exactly representable and the power of
+	 * ten is exactly representable, so a single multiplication or division is correctly rounded.
+	 * @param isFloat If true, the limits for float are used and the result is computed in float arithmetic, so it can be cast to
+	 *           float without rounding twice.
+	 * @return NaN if the characters are not in that form. */
+	static private double parseDouble (CharSequence chars, boolean isFloat) {
+		int maxSignificantDigits = isFloat ? 7 : 15;
+		int maxExponent = isFloat ? FLOAT_POWERS_OF_TEN.length - 1 : DOUBLE_POWERS_OF_TEN.length - 1;
+		int n = chars.length(), i = 0;
+		if (n == 0) return Double.NaN;
+		char c = chars.charAt(0);
+		boolean negative = c == '-';
+		if (negative || c == '+') i++;
+		long mantissa = 0;
+		int significantDigits = 0, digits = 0, exponent = 0;
+		boolean fraction = false;
+		for (; i < n; i++) {
+			c = chars.charAt(i);
+			if (c >= '0' && c <= '9') {
+				digits++;
+				if (mantissa != 0 || c != '0') {
+					if (++significantDigits > maxSignificantDigits) return Double.NaN;
+					mantissa = mantissa * 10 + (c - '0');
+				}
+				if (fraction) exponent--;
+			} else if (c == '.' && !fraction)
+				fraction = true;
+			else
+				break;
+		}
+		if (digits == 0) return Double.NaN;
+		if (i < n) {
+			if (c != 'e' && c != 'E' || ++i == n) return Double.NaN;
+			c = chars.charAt(i);
+			boolean negativeExponent = c == '-';
+			if ((negativeExponent || c == '+') && ++i == n) return Double.NaN;
+			int explicitExponent = 0;
+			for (; i < n; i++) {
+				c = chars.charAt(i);
+				if (c < '0' || c > '9' || explicitExponent > 1000) return Double.NaN;
+				explicitExponent = explicitExponent * 10 + (c - '0');
+			}
+			exponent += negativeExponent ? -explicitExponent : explicitExponent;
+		}
+		double value;
+		if (mantissa == 0)
+			value = 0;
+		else if (exponent < -maxExponent || exponent > maxExponent)
+			return Double.NaN;
+		else if (isFloat) {
+			if (exponent < 0)
+				value = (float)mantissa / FLOAT_POWERS_OF_TEN[-exponent];
+			else
+				value = (float)mantissa * FLOAT_POWERS_OF_TEN[exponent];
+		} else if (exponent < 0)
+			value = mantissa / DOUBLE_POWERS_OF_TEN[-exponent];
+		else
+			value = mantissa * DOUBLE_POWERS_OF_TEN[exponent];
+		return negative ? -value : value;
+	}
+
+	/** Returns the same as {@link Boolean#valueOf(String)}: true only for "true", ignoring case. */
+	static private boolean isTrue (CharSequence chars) {
+		if (chars.length() != 4) return false;
+		for (int i = 0; i < 4; i++) {
+			char c = chars.charAt(i), expected = "true".charAt(i);
+			if (c == expected) continue;
+			char upper = Character.toUpperCase(c);
+			if (upper != Character.toUpperCase(expected) && Character.toLowerCase(upper) != expected) return false;
+		}
+		return true;
+	}
+
+	static private final double[] DOUBLE_POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12,
+		1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+	static private final float[] FLOAT_POWERS_OF_TEN = {1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f};
+
 	/** see http://yaml.org/type/merge.html */
 	@SuppressWarnings("unchecked")
 	private void mergeMap (Map<String, Object> dest, Object source) throws YamlReaderException {
@@ -490,7 +814,7 @@ public class YamlReader implements AutoCloseable {
 		// Use deferred construction if a non-zero-arg constructor is available.
 		DeferredConstruction deferredConstruction = Beans.getDeferredConstruction(type, config);
 		if (deferredConstruction != null) return deferredConstruction;
-		return Beans.createObject(type, config.privateConstructors);
+		return Beans.createObject(type, config);
 	}
 
 	public class YamlReaderException extends YamlException {
@@ -503,44 +827,94 @@ public class YamlReader implements AutoCloseable {
 		}
 	}
 
-	private Number parseNumber(String value) {
-		Number number = null;
-		try {
-			number = Long.decode(value);
-		} catch (NumberFormatException e) {
+	/** Returns the value as a Long if {@link Long#decode(String)} accepts it, otherwise as a Double if
+	 * {@link Double#parseDouble(String)} accepts it, otherwise null. The forms are checked directly, so values that are not
+	 * numbers are rejected without an exception, usually at the first character. */
+	static private Number parseNumber (String value) {
+		Long number = decodeLong(value);
+		if (number != null) return number;
+		if (isDouble(value)) return Double.parseDouble(value);
+		return null;
+	}
+
+	/** Returns the same as {@link Long#decode(String)}, or null where it throws NumberFormatException. */
+	static private Long decodeLong (String value) {
+		int n = value.length(), i = 0;
+		if (n == 0) return null;
+		char c = value.charAt(0);
+		boolean negative = c == '-';
+		if (negative || c == '+') i++;
+		int radix = 10;
+		if (value.startsWith("0x", i) || value.startsWith("0X", i)) {
+			radix = 16;
+			i += 2;
+		} else if (value.startsWith("#", i)) {
+			radix = 16;
+			i++;
+		} else if (value.startsWith("0", i) && i + 1 < n) {
+			radix = 8;
+			i++;
 		}
-		if (number == null) {
-			try {
-				number = Double.parseDouble(value);
-			} catch (NumberFormatException e) {
-			}
+		if (i == n) return null;
+		// Accumulate negatively, as Long.parseLong does, so Long.MIN_VALUE can be represented.
+		long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE, limitBeforeMultiply = limit / radix, result = 0;
+		for (; i < n; i++) {
+			int digit = Character.digit(value.charAt(i), radix);
+			if (digit < 0 || result < limitBeforeMultiply) return null;
+			result *= radix;
+			if (result < limit + digit) return null;
+			result -= digit;
 		}
-		return number;
+		return negative ? result : -result;
 	}
 
-	private void skipRange () {
-		Event nextEvent;
-		int depth = 0;
-		do {
-			nextEvent = parser.getNextEvent();
-			switch (nextEvent.type) {
-			case SEQUENCE_START:
-				depth++;
-				break;
-			case MAPPING_START:
-				depth++;
-				break;
-			case SEQUENCE_END:
-				depth--;
-				break;
-			case MAPPING_END:
-				depth--;
-				break;
-			default:
-				// ignore
+	/** Returns true if {@link Double#parseDouble(String)} accepts the value: optional surrounding whitespace and sign, then "NaN",
+	 * "Infinity", a decimal number with an optional exponent or a hexadecimal number with a binary exponent, then an optional
+	 * float or double suffix for numbers. */
+	static private boolean isDouble (String value) {
+		int start = 0, end = value.length();
+		while (start < end && value.charAt(start) <= ' ')
+			start++;
+		while (end > start && value.charAt(end - 1) <= ' ')
+			end--;
+		if (start == end) return false;
+		int i = start;
+		char c = value.charAt(i);
+		if (c == '-' || c == '+') {
+			if (++i == end) return false;
+			c = value.charAt(i);
+		}
+		if (c == 'N') return i + 3 == end && value.startsWith("NaN", i);
+		if (c == 'I') return i + 8 == end && value.startsWith("Infinity", i);
+		boolean hex = c == '0' && i + 1 < end && (value.charAt(i + 1) == 'x' || value.charAt(i + 1) == 'X');
+		if (hex) i += 2;
+		int digits = 0;
+		boolean point = false;
+		for (; i < end; i++) {
+			c = value.charAt(i);
+			if (c >= '0' && c <= '9' || hex && (c >= 'a' && c <= 'f' || c >= 'A' && c <= 'F'))
+				digits++;
+			else if (c == '.' && !point)
+				point = true;
+			else
 				break;
-			}
-		} while (depth > 0);
+		}
+		if (digits == 0) return false;
+		if (i < end && (hex ? c == 'p' || c == 'P' : c == 'e' || c == 'E')) {
+			if (++i < end && (value.charAt(i) == '-' || value.charAt(i) == '+')) i++;
+			int exponentStart = i;
+			while (i < end && value.charAt(i) >= '0' && value.charAt(i) <= '9')
+				i++;
+			if (i == exponentStart) return false;
+		} else if (hex) {
+			// A hexadecimal number requires a binary exponent.
+			return false;
+		}
+		if (i == end - 1) {
+			c = value.charAt(i);
+			if (c == 'f' || c == 'F' || c == 'd' || c == 'D') i++;
+		}
+		return i == end;
 	}
 
 	public static void main (String[] args) throws Exception {
@@ -69,6 +69,19 @@ public class YamlWriter implements AutoCloseable {
 		emitter = new Emitter(writer, config.writeConfig.emitterConfig);
 	}
 
+	/** Discards all state, including any objects that have not been written, and begins writing to the specified writer, so one
+	 * YamlWriter can be reused for many streams with the same config. The previous writer is not closed.
+	 * @see #close() */
+	public void reset (Writer writer) {
+		emitter.reset(writer);
+		started = false;
+		queuedObjects.clear();
+		referenceCount.clear();
+		anchoredObjects.clear();
+		nextAnchor = 1;
+		isRoot = false;
+	}
+
 	public void setAlias (Object object, String alias) {
 		anchoredObjects.put(object, alias);
 	}
@@ -117,11 +130,20 @@ public class YamlWriter implements AutoCloseable {
 	/** Finishes writing any buffered output and releases all resources.
 	 * @throws YamlException If the buffered output could not be written or the writer could not be closed. */
 	public void close () throws YamlException {
-		clearAnchors();
+		finish();
 		defaultValuePrototypes.clear();
 		try {
-			emitter.emit(Event.STREAM_END);
 			emitter.close();
+		} catch (IOException ex) {
+			throw new YamlException(ex);
+		}
+	}
+
+	/** Writes any buffered objects and ends the stream, which flushes the writer without closing it. */
+	void finish () throws YamlException {
+		clearAnchors();
+		try {
+			emitter.emit(Event.STREAM_END);
 		} catch (EmitterException ex) {
 			throw new YamlException(ex);
 		} catch (IOException ex) {
@@ -181,13 +203,11 @@ public class YamlWriter implements AutoCloseable {
 			}
 		}
 
-		for (Entry<Class, ScalarSerializer> entry : config.scalarSerializers.entrySet()) {
-			if (entry.getKey().isAssignableFrom(valueClass)) {
-				ScalarSerializer serializer = entry.getValue();
-				emitter.emit(new ScalarEvent(null, tag, new boolean[] { tag == null, tag == null },
-						serializer.write(object), this.config.writeConfig.quote.c));
-				return;
-			}
+		ScalarSerializer serializer = config.getScalarSerializer(valueClass);
+		if (serializer != null) {
+			emitter.emit(new ScalarEvent(null, tag, new boolean[] { tag == null, tag == null },
+					serializer.write(object), this.config.writeConfig.quote.c));
+			return;
 		}
 
 		if (Beans.isScalar(valueClass)) {
@@ -245,8 +265,10 @@ public class YamlWriter implements AutoCloseable {
 		if (fieldClass.isArray()) {
 			elementType = fieldClass.getComponentType();
 			emitter.emit(new SequenceStartEvent(anchor, null, true, config.writeConfig.isFlowStyle()));
-			for (int i = 0, n = Array.getLength(object); i < n; i++)
-				writeValue(Array.get(object, i), elementType, null, null);
+			if (!elementType.isPrimitive() || !writePrimitiveArray(object, elementType)) {
+				for (int i = 0, n = Array.getLength(object); i < n; i++)
+					writeValue(Array.get(object, i), elementType, null, null);
+			}
 			emitter.emit(Event.SEQUENCE_END);
 			return;
 		}
@@ -258,7 +280,7 @@ public class YamlWriter implements AutoCloseable {
 			prototype = defaultValuePrototypes.get(valueClass);
 			if (prototype == null && Beans.getDeferredConstruction(valueClass, config) == null) {
 				try {
-					prototype = Beans.createObject(valueClass, config.privateConstructors);
+					prototype = Beans.createObject(valueClass, config);
 				} catch (InvocationTargetException ex) {
 					throw new YamlException("Error creating object prototype to determine default values.", ex);
 				}
@@ -266,7 +288,7 @@ public class YamlWriter implements AutoCloseable {
 			}
 		}
 
-		Set<Property> properties = Beans.getProperties(valueClass, config.beanProperties, config.privateFields, config);
+		Property[] properties = Beans.getOrderedProperties(valueClass, config.beanProperties, config.privateFields, config);
 		emitter.emit(new MappingStartEvent(anchor, tag, !showTag, config.writeConfig.isFlowStyle()));
 		for (Property property : properties) {
 			try {
@@ -289,6 +311,52 @@ public class YamlWriter implements AutoCloseable {
 		emitter.emit(Event.MAPPING_END);
 	}
 
+	/** Writes the elements of an int, long, float, double or boolean array without boxing them, emitting the same events as
+	 * writing each element as an object would.
+	 * @return false if nothing was written because the array has another component type or a scalar serializer applies to the
+	 *         elements. */
+	private boolean writePrimitiveArray (Object array, Class componentType) throws EmitterException, IOException {
+		Class valueClass;
+		if (componentType == int.class)
+			valueClass = Integer.class;
+		else if (componentType == long.class)
+			valueClass = Long.class;
+		else if (componentType == float.class)
+			valueClass = Float.class;
+		else if (componentType == double.class)
+			valueClass = Double.class;
+		else if (componentType == boolean.class)
+			valueClass = Boolean.class;
+		else
+			return false;
+		if (config.getScalarSerializer(valueClass) != null) return false;
+
+		// The element type is primitive and the value is its wrapper, so a tag is shown unless class names are never written.
+		String tag = null;
+		if (config.writeConfig.writeClassName != WriteClassName.NEVER) {
+			tag = config.classNameToTag.get(valueClass.getName());
+			if (tag == null) tag = valueClass.getName();
+		}
+		char quote = config.writeConfig.quote.c;
+		if (array instanceof int[]) {
+			for (int value : (int[])array)
+				emitter.emit(new ScalarEvent(null, tag, new boolean[] {true, true}, String.valueOf(value), quote));
+		} else if (array instanceof long[]) {
+			for (long value : (long[])array)
+				emitter.emit(new ScalarEvent(null, tag, new boolean[] {true, true}, String.valueOf(value), quote));
+		} else if (array instanceof float[]) {
+			for (float value : (float[])array)
+				emitter.emit(new ScalarEvent(null, tag, new boolean[] {true, true}, String.valueOf(value), quote));
+		} else if (array instanceof double[]) {
+			for (double value : (double[])array)
+				emitter.emit(new ScalarEvent(null, tag, new boolean[] {true, true}, String.valueOf(value), quote));
+		} else {
+			for (boolean value : (boolean[])array)
+				emitter.emit(new ScalarEvent(null, tag, new boolean[] {true, true}, String.valueOf(value), quote));
+		}
+		return true;
+	}
+
 	private void countObjectReferences (Object object) throws YamlException {
 		if (object == null || Beans.isScalar(object.getClass())) return;
 
@@ -313,6 +381,8 @@ public class YamlWriter implements AutoCloseable {
 		}
 
 		if (object.getClass().isArray()) {
+			// Elements of primitive arrays are scalars, which aren't counted.
+			if (object.getClass().getComponentType().isPrimitive()) return;
 			for (int i = 0, n = Array.getLength(object); i < n; i++)
 				countObjectReferences(Array.get(object, i));
 			return;
@@ -320,7 +390,7 @@ public class YamlWriter implements AutoCloseable {
 
 		// Value must be an object.
 
-		Set<Property> properties = Beans.getProperties(object.getClass(), config.beanProperties, config.privateFields, config);
+		Property[] properties = Beans.getOrderedProperties(object.getClass(), config.beanProperties, config.privateFields, config);
 		for (Property property : properties) {
 			if (Beans.isScalar(property.getType())) continue;
 			Object propertyValue;
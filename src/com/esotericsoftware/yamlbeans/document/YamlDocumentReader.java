@@ -2,8 +2,12 @@ package com.esotericsoftware.yamlbeans.document;
 
 import static com.esotericsoftware.yamlbeans.parser.EventType.*;
 
+import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Iterator;
 
 import com.esotericsoftware.yamlbeans.Version;
@@ -15,6 +19,7 @@ import com.esotericsoftware.yamlbeans.parser.Parser;
 import com.esotericsoftware.yamlbeans.parser.Parser.ParserException;
 import com.esotericsoftware.yamlbeans.parser.ScalarEvent;
 import com.esotericsoftware.yamlbeans.parser.SequenceStartEvent;
+import com.esotericsoftware.yamlbeans.tokenizer.Tokenizer;
 import com.esotericsoftware.yamlbeans.tokenizer.Tokenizer.TokenizerException;
 
 public class YamlDocumentReader {
@@ -39,6 +44,38 @@ public class YamlDocumentReader {
 		parser = new Parser(reader, version);
 	}
 
+	private YamlDocumentReader(Tokenizer tokenizer, Version version) {
+		if(version==null)
+			version = Version.DEFAULT_VERSION;
+		parser = new Parser(tokenizer, version);
+	}
+
+	/** Reads UTF-8 from the file by memory mapping it, so the file is never read into the heap as a whole. Closing the reader closes the file. */
+	public static YamlDocumentReader fromFile(Path path) throws IOException {
+		return fromFile(path, null);
+	}
+
+	/** Reads UTF-8 from the file by memory mapping it, so the file is never read into the heap as a whole. Closing the reader closes the file. */
+	public static YamlDocumentReader fromFile(Path path, Version version) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+		try {
+			return fromMapped(channel, version);
+		} catch (IOException ex) {
+			channel.close();
+			throw ex;
+		}
+	}
+
+	/** Reads UTF-8 from the channel's position to the end of the file by memory mapping it. Closing the reader closes the
+	 * channel. */
+	public static YamlDocumentReader fromMapped(FileChannel channel, Version version) throws IOException {
+		return new YamlDocumentReader(new Tokenizer(channel, Tokenizer.DEFAULT_BUFFER_SIZE), version);
+	}
+
+	public void close() throws IOException {
+		parser.close();
+	}
+
 	public YamlDocument read() throws YamlException {
 		return read(YamlDocument.class);
 	}
@@ -208,7 +245,7 @@ public class YamlDocumentReader {
 		YamlScalar element = new YamlScalar();
 		element.setTag(scalar.tag);
 		element.setAnchor(scalar.anchor);
-		element.setValue(scalar.value);
+		element.setValue(scalar.getValue());
 		return element;
 	}
 	
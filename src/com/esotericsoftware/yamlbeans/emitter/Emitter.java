@@ -30,6 +30,7 @@ import com.esotericsoftware.yamlbeans.parser.SequenceStartEvent;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -72,11 +73,34 @@ public class Emitter {
 	public Emitter (Writer writer, EmitterConfig config) {
 		this.config = config;
 		if (writer == null) throw new IllegalArgumentException("stream cannot be null.");
-		if (!(writer instanceof BufferedWriter)) writer = new BufferedWriter(writer);
+		if (!(writer instanceof BufferedWriter) && !(writer instanceof StringWriter)) writer = new BufferedWriter(writer);
 		this.writer = new EmitterWriter(writer);
 		initStateTable();
 	}
 
+	/** Discards all state, including any events that have not been written, and begins writing to the specified writer, so one
+	 * emitter can be reused for many streams. The previous writer is not flushed or closed. */
+	public void reset (Writer writer) {
+		if (writer == null) throw new IllegalArgumentException("stream cannot be null.");
+		if (!(writer instanceof BufferedWriter) && !(writer instanceof StringWriter)) writer = new BufferedWriter(writer);
+		this.writer.reset(writer);
+		state = S_STREAM_START;
+		states.clear();
+		events.clear();
+		indents.clear();
+		isVersion10 = false;
+		event = null;
+		flowLevel = 0;
+		indent = -1;
+		mappingContext = false;
+		simpleKeyContext = false;
+		tagPrefixes = null;
+		preparedTag = null;
+		preparedAnchor = null;
+		analysis = null;
+		style = 0;
+	}
+
 	public void emit (Event event) throws IOException, EmitterException {
 		if (event == null) throw new IllegalArgumentException("event cannot be null.");
 		events.add(event);
@@ -470,7 +494,7 @@ public class Emitter {
 		if (event.type != DOCUMENT_START || events.isEmpty()) return false;
 		Event ev = events.get(0);
 		return ev.type == SCALAR && ((ScalarEvent)ev).anchor == null && ((ScalarEvent)ev).tag == null
-			&& ((ScalarEvent)ev).implicit != null && ((ScalarEvent)ev).value.equals("");
+			&& ((ScalarEvent)ev).implicit != null && ((ScalarEvent)ev).getValue().equals("");
 	}
 
 	boolean checkSimpleKey () {
@@ -488,7 +512,7 @@ public class Emitter {
 			length += preparedTag.length();
 		}
 		if (event.type == SCALAR && analysis == null) {
-			analysis = ScalarAnalysis.analyze(((ScalarEvent)event).value, config.escapeUnicode);
+			analysis = ScalarAnalysis.analyze(((ScalarEvent)event).getValue(), config.escapeUnicode);
 			length += analysis.scalar.length();
 		}
 
@@ -538,7 +562,7 @@ public class Emitter {
 
 	private char chooseScalarStyle () {
 		ScalarEvent ev = (ScalarEvent)event;
-		if (analysis == null) analysis = ScalarAnalysis.analyze(ev.value, config.escapeUnicode);
+		if (analysis == null) analysis = ScalarAnalysis.analyze(ev.getValue(), config.escapeUnicode);
 		if (ev.style == '"' || config.canonical) return '"';
 		if ((ev.style == 0 || ev.style == '|' || ev.style == '>')
 				&& !(simpleKeyContext && (analysis.empty || analysis.multiline))
@@ -559,7 +583,7 @@ public class Emitter {
 
 	private void processScalar () throws IOException {
 		ScalarEvent ev = (ScalarEvent)event;
-		if (analysis == null) analysis = ScalarAnalysis.analyze(ev.value, config.escapeUnicode);
+		if (analysis == null) analysis = ScalarAnalysis.analyze(ev.getValue(), config.escapeUnicode);
 		if (style == 0) style = chooseScalarStyle();
 		boolean split = !simpleKeyContext;
 		if (style == '"')
@@ -43,7 +43,7 @@ class EmitterWriter {
 		ESCAPE_REPLACEMENTS.put((int)Unicode.NO_BREAK_SPACE, "_");
 	}
 
-	private final Writer writer;
+	private Writer writer;
 	private boolean whitespace = true;
 
 	int column = 0;
@@ -53,6 +53,13 @@ class EmitterWriter {
 		this.writer = stream;
 	}
 
+	public void reset (Writer stream) {
+		writer = stream;
+		whitespace = true;
+		column = 0;
+		indentation = true;
+	}
+
 	public void writeStreamStart () {
 	}
 
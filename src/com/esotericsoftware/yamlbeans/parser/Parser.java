@@ -32,9 +32,8 @@ import com.esotericsoftware.yamlbeans.tokenizer.Tokenizer.TokenizerException;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.Reader;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Map;
 
 /** Parses a stream of tokens into events.
@@ -42,30 +41,47 @@ import java.util.Map;
  * @author <a href="mailto:ola.bini@ki.se">Ola Bini</a> */
 public class Parser {
 	Tokenizer tokenizer = null;
-	List<Production> parseStack = null;
-	final List<String> tags = new LinkedList();
-	final List<String> anchors = new LinkedList();
+	int[] parseStack = new int[32];
+	int parseStackSize;
+	String[] tags = new String[16], anchors = new String[16];
+	int propertiesSize;
 	Map<String, String> tagHandles = new HashMap();
 	Version defaultVersion, documentVersion;
-	final Production[] table = new Production[46];
 	Event peekedEvent;
+	boolean skipping;
 
 	public Parser (Reader reader) {
 		this(reader, Version.DEFAULT_VERSION);
 	}
 
 	public Parser (Reader reader, Version defaultVersion) {
-		if (reader == null) throw new IllegalArgumentException("reader cannot be null.");
+		this(new Tokenizer(reader), defaultVersion);
+	}
+
+	public Parser (Tokenizer tokenizer, Version defaultVersion) {
+		if (tokenizer == null) throw new IllegalArgumentException("tokenizer cannot be null.");
 		if (defaultVersion == null) throw new IllegalArgumentException("defaultVersion cannot be null.");
 
-		tokenizer = new Tokenizer(reader);
+		this.tokenizer = tokenizer;
 
 		this.defaultVersion = defaultVersion;
 
-		initProductionTable();
+		push(P_STREAM);
+	}
 
-		parseStack = new LinkedList();
-		parseStack.add(0, table[P_STREAM]);
+	/** Discards all state and begins parsing the specified reader, so one parser and its tokenizer can be reused for many
+	 * streams. The previous reader is not closed.
+	 * @see Tokenizer#reset(Reader) */
+	public void reset (Reader reader) {
+		tokenizer.reset(reader);
+		parseStackSize = 0;
+		Arrays.fill(tags, 0, propertiesSize, null);
+		Arrays.fill(anchors, 0, propertiesSize, null);
+		propertiesSize = 0;
+		tagHandles.clear();
+		documentVersion = null;
+		peekedEvent = null;
+		push(P_STREAM);
 	}
 
 	public Event getNextEvent () throws ParserException, TokenizerException {
@@ -76,13 +92,7 @@ public class Parser {
 				peekedEvent = null;
 			}
 		}
-		while (!parseStack.isEmpty()) {
-			Event event = parseStack.remove(0).produce();
-			if (event != null) {
-				return event;
-			}
-		}
-		return null;
+		return produceEvent();
 	}
 
 	public Event peekNextEvent () throws ParserException, TokenizerException {
@@ -91,6 +101,49 @@ public class Parser {
 		return peekedEvent;
 	}
 
+	/** Consumes the next node and all the nodes it contains without creating events for them. Scalars are scanned as
+	 * {@link Tokenizer#setScalarSlices(boolean) slices} while skipping, so most scalar values are not copied into Strings.
+	 * @return false if the next event is not a scalar, alias, sequence or mapping, in which case it is not consumed. */
+	public boolean skipNode () throws ParserException, TokenizerException {
+		Event event = peekedEvent;
+		peekedEvent = null;
+		boolean scalarSlices = tokenizer.getScalarSlices();
+		tokenizer.setScalarSlices(true);
+		skipping = true;
+		try {
+			int depth = 0;
+			do {
+				if (event == null) event = produceEvent();
+				if (event == null) return false;
+				switch (event.type) {
+				case SEQUENCE_START:
+				case MAPPING_START:
+					depth++;
+					break;
+				case SEQUENCE_END:
+				case MAPPING_END:
+					depth--;
+					break;
+				case SCALAR:
+				case ALIAS:
+					break;
+				default:
+					depth = -1;
+				}
+				if (depth < 0) {
+					peekedEvent = event;
+					return false;
+				}
+				event = null;
+			} while (depth > 0);
+			return true;
+		} finally {
+			skipping = false;
+			// Restoring the setting creates the Strings for scalars after the node that were scanned ahead while skipping.
+			tokenizer.setScalarSlices(scalarSlices);
+		}
+	}
+
 	public int getLineNumber () {
 		return tokenizer.getLineNumber();
 	}
@@ -103,494 +156,434 @@ public class Parser {
 		tokenizer.close();
 	}
 
-	private void initProductionTable () {
-		table[P_STREAM] = new Production() {
-			public Event produce () {
-				parseStack.add(0, table[P_STREAM_END]);
-				parseStack.add(0, table[P_EXPLICIT_DOCUMENT]);
-				parseStack.add(0, table[P_IMPLICIT_DOCUMENT]);
-				parseStack.add(0, table[P_STREAM_START]);
-				return null;
-			}
-		};
-		table[P_STREAM_START] = new Production() {
-			public Event produce () {
-				tokenizer.getNextToken();
-				return Event.STREAM_START;
-			}
-		};
-		table[P_STREAM_END] = new Production() {
-			public Event produce () {
-				tokenizer.getNextToken();
-				return Event.STREAM_END;
-			}
-		};
-		table[P_IMPLICIT_DOCUMENT] = new Production() {
-			public Event produce () {
-				if (isNextTokenImplicitDocument()) {
-					parseImplicitDocument();
-				}
-				return null;
-			}
-
-			private boolean isNextTokenImplicitDocument() {
-				TokenType type = tokenizer.peekNextTokenType();
-				return type != DIRECTIVE && type != DOCUMENT_START && type != STREAM_END;
-			}
+	private void push (int production) {
+		if (parseStackSize == parseStack.length) {
+			int[] newStack = new int[parseStackSize << 1];
+			System.arraycopy(parseStack, 0, newStack, 0, parseStackSize);
+			parseStack = newStack;
+		}
+		parseStack[parseStackSize++] = production;
+	}
 
-			private void parseImplicitDocument() {
-				parseStack.add(0, table[P_DOCUMENT_END]);
-				parseStack.add(0, table[P_BLOCK_NODE]);
-				parseStack.add(0, table[P_DOCUMENT_START_IMPLICIT]);
-			}
-		};
+	private Event produceEvent () {
+		while (parseStackSize > 0) {
+			Event event = produce(parseStack[--parseStackSize]);
+			if (event != null) return event;
+		}
+		return null;
+	}
 
-		table[P_EXPLICIT_DOCUMENT] = new Production() {
-			public Event produce () {
-				if (tokenizer.peekNextTokenType() != STREAM_END) {
-					parseStack.add(0, table[P_EXPLICIT_DOCUMENT]);
-					parseStack.add(0, table[P_DOCUMENT_END]);
-					parseStack.add(0, table[P_BLOCK_NODE]);
-					parseStack.add(0, table[P_DOCUMENT_START]);
-				}
-				return null;
-			}
-		};
-		table[P_DOCUMENT_START] = new Production() {
-			public Event produce () {
-				Token token = tokenizer.peekNextToken();
-				DocumentStartEvent documentStartEvent = processDirectives(true);
-				if (tokenizer.peekNextTokenType() != DOCUMENT_START)
-					throw new ParserException("Expected 'document start' but found: " + token.type);
+	/** Runs a single production, which either pushes the productions that replace it or returns an event.
+	 * @return May be null. */
+	private Event produce (int production) {
+		switch (production) {
+		case P_STREAM: {
+			push(P_STREAM_END);
+			push(P_EXPLICIT_DOCUMENT);
+			push(P_IMPLICIT_DOCUMENT);
+			push(P_STREAM_START);
+			return null;
+		}
+		case P_STREAM_START: {
+			tokenizer.getNextToken();
+			return Event.STREAM_START;
+		}
+		case P_STREAM_END: {
+			tokenizer.getNextToken();
+			return Event.STREAM_END;
+		}
+		case P_IMPLICIT_DOCUMENT: {
+			TokenType type = tokenizer.peekNextTokenType();
+			if (type != DIRECTIVE && type != DOCUMENT_START && type != STREAM_END) {
+				push(P_DOCUMENT_END);
+				push(P_BLOCK_NODE);
+				push(P_DOCUMENT_START_IMPLICIT);
+			}
+			return null;
+		}
+		case P_EXPLICIT_DOCUMENT: {
+			if (tokenizer.peekNextTokenType() != STREAM_END) {
+				push(P_EXPLICIT_DOCUMENT);
+				push(P_DOCUMENT_END);
+				push(P_BLOCK_NODE);
+				push(P_DOCUMENT_START);
+			}
+			return null;
+		}
+		case P_DOCUMENT_START: {
+			Token token = tokenizer.peekNextToken();
+			DocumentStartEvent documentStartEvent = processDirectives(true);
+			if (tokenizer.peekNextTokenType() != DOCUMENT_START)
+				throw new ParserException("Expected 'document start' but found: " + token.type);
+			tokenizer.getNextToken();
+			return documentStartEvent;
+		}
+		case P_DOCUMENT_START_IMPLICIT: {
+			return processDirectives(false);
+		}
+		case P_DOCUMENT_END: {
+			boolean explicit = false;
+			while (tokenizer.peekNextTokenType() == DOCUMENT_END) {
 				tokenizer.getNextToken();
-				return documentStartEvent;
+				explicit = true;
 			}
-		};
-		table[P_DOCUMENT_START_IMPLICIT] = new Production() {
-			public Event produce () {
-				return processDirectives(false);
-			}
-		};
-		table[P_DOCUMENT_END] = new Production() {
-			public Event produce () {
-				boolean explicit = false;
-				while (tokenizer.peekNextTokenType() == DOCUMENT_END) {
-					tokenizer.getNextToken();
-					explicit = true;
-				}
-				return explicit ? Event.DOCUMENT_END_TRUE : Event.DOCUMENT_END_FALSE;
-			}
-		};
-		table[P_BLOCK_NODE] = new Production() {
-			public Event produce () {
-				TokenType type = tokenizer.peekNextTokenType();
-				if (type == DIRECTIVE || type == DOCUMENT_START || type == DOCUMENT_END || type == STREAM_END)
-					parseStack.add(0, table[P_EMPTY_SCALAR]);
-				else if (type == ALIAS)
-					parseStack.add(0, table[P_ALIAS]);
-				else {
-					parseStack.add(0, table[P_PROPERTIES_END]);
-					parseStack.add(0, table[P_BLOCK_CONTENT]);
-					parseStack.add(0, table[P_PROPERTIES]);
-				}
-				return null;
-			}
-		};
-		table[P_BLOCK_CONTENT] = new Production() {
-			public Event produce () {
-				TokenType type = tokenizer.peekNextTokenType();
-				if (type == BLOCK_SEQUENCE_START)
-					parseStack.add(0, table[P_BLOCK_SEQUENCE]);
-				else if (type == BLOCK_MAPPING_START)
-					parseStack.add(0, table[P_BLOCK_MAPPING]);
-				else if (type == FLOW_SEQUENCE_START)
-					parseStack.add(0, table[P_FLOW_SEQUENCE]);
-				else if (type == FLOW_MAPPING_START)
-					parseStack.add(0, table[P_FLOW_MAPPING]);
-				else if (type == SCALAR)
-					parseStack.add(0, table[P_SCALAR]);
-				else
-					throw new ParserException("Expected a sequence, mapping, or scalar but found: " + type);
-				return null;
-			}
-		};
-		table[P_PROPERTIES] = new Production() {
-			public Event produce () {
-				String anchor = null, tagHandle = null, tagSuffix = null;
-				if (tokenizer.peekNextTokenType() == ANCHOR) {
-					anchor = ((AnchorToken)tokenizer.getNextToken()).getInstanceName();
-					if (tokenizer.peekNextTokenType() == TAG) {
-						TagToken tagToken = (TagToken)tokenizer.getNextToken();
-						tagHandle = tagToken.getHandle();
-						tagSuffix = tagToken.getSuffix();
-					}
-				} else if (tokenizer.peekNextTokenType() == TAG) {
+			return explicit ? Event.DOCUMENT_END_TRUE : Event.DOCUMENT_END_FALSE;
+		}
+		case P_BLOCK_NODE: {
+			TokenType type = tokenizer.peekNextTokenType();
+			if (type == DIRECTIVE || type == DOCUMENT_START || type == DOCUMENT_END || type == STREAM_END)
+				push(P_EMPTY_SCALAR);
+			else if (type == ALIAS)
+				push(P_ALIAS);
+			else {
+				push(P_PROPERTIES_END);
+				push(P_BLOCK_CONTENT);
+				push(P_PROPERTIES);
+			}
+			return null;
+		}
+		case P_BLOCK_CONTENT: {
+			TokenType type = tokenizer.peekNextTokenType();
+			if (type == BLOCK_SEQUENCE_START)
+				push(P_BLOCK_SEQUENCE);
+			else if (type == BLOCK_MAPPING_START)
+				push(P_BLOCK_MAPPING);
+			else if (type == FLOW_SEQUENCE_START)
+				push(P_FLOW_SEQUENCE);
+			else if (type == FLOW_MAPPING_START)
+				push(P_FLOW_MAPPING);
+			else if (type == SCALAR)
+				push(P_SCALAR);
+			else
+				throw new ParserException("Expected a sequence, mapping, or scalar but found: " + type);
+			return null;
+		}
+		case P_PROPERTIES: {
+			String anchor = null, tagHandle = null, tagSuffix = null;
+			if (tokenizer.peekNextTokenType() == ANCHOR) {
+				anchor = ((AnchorToken)tokenizer.getNextToken()).getInstanceName();
+				if (tokenizer.peekNextTokenType() == TAG) {
 					TagToken tagToken = (TagToken)tokenizer.getNextToken();
 					tagHandle = tagToken.getHandle();
 					tagSuffix = tagToken.getSuffix();
-					if (tokenizer.peekNextTokenType() == ANCHOR) anchor = ((AnchorToken)tokenizer.getNextToken()).getInstanceName();
 				}
-				String tag = null;
-				if (tagHandle != null) {
-					if (!tagHandles.containsKey(tagHandle)) throw new ParserException("Undefined tag handle: " + tagHandle);
-					tag = tagHandles.get(tagHandle) + tagSuffix;
-				} else
-					tag = tagSuffix;
-				anchors.add(0, anchor);
-				tags.add(0, tag);
-				return null;
-			}
-		};
-		table[P_PROPERTIES_END] = new Production() {
-			public Event produce () {
-				anchors.remove(0);
-				tags.remove(0);
-				return null;
-			}
-		};
-		table[P_FLOW_CONTENT] = new Production() {
-			public Event produce () {
-				TokenType type = tokenizer.peekNextTokenType();
-				if (type == FLOW_SEQUENCE_START)
-					parseStack.add(0, table[P_FLOW_SEQUENCE]);
-				else if (type == FLOW_MAPPING_START)
-					parseStack.add(0, table[P_FLOW_MAPPING]);
-				else if (type == SCALAR)
-					parseStack.add(0, table[P_SCALAR]);
-				else
-					throw new ParserException("Expected a sequence, mapping, or scalar but found: " + type);
-				return null;
-			}
-		};
-		table[P_BLOCK_SEQUENCE] = new Production() {
-			public Event produce () {
-				parseStack.add(0, table[P_BLOCK_SEQUENCE_END]);
-				parseStack.add(0, table[P_BLOCK_SEQUENCE_ENTRY]);
-				parseStack.add(0, table[P_BLOCK_SEQUENCE_START]);
-				return null;
-			}
-		};
-		table[P_BLOCK_MAPPING] = new Production() {
-			public Event produce () {
-				parseStack.add(0, table[P_BLOCK_MAPPING_END]);
-				parseStack.add(0, table[P_BLOCK_MAPPING_ENTRY]);
-				parseStack.add(0, table[P_BLOCK_MAPPING_START]);
-				return null;
-			}
-		};
-		table[P_FLOW_SEQUENCE] = new Production() {
-			public Event produce () {
-				parseStack.add(0, table[P_FLOW_SEQUENCE_END]);
-				parseStack.add(0, table[P_FLOW_SEQUENCE_ENTRY]);
-				parseStack.add(0, table[P_FLOW_SEQUENCE_START]);
-				return null;
-			}
-		};
-		table[P_FLOW_MAPPING] = new Production() {
-			public Event produce () {
-				parseStack.add(0, table[P_FLOW_MAPPING_END]);
-				parseStack.add(0, table[P_FLOW_MAPPING_ENTRY]);
-				parseStack.add(0, table[P_FLOW_MAPPING_START]);
-				return null;
-			}
-		};
-		table[P_SCALAR] = new Production() {
-			public Event produce () {
-				ScalarToken token = (ScalarToken)tokenizer.getNextToken();
-				boolean[] implicit = null;
-				if (token.getPlain() && tags.get(0) == null || "!".equals(tags.get(0)))
-					implicit = new boolean[] {true, false};
-				else if (tags.get(0) == null)
-					implicit = new boolean[] {false, true};
-				else
-					implicit = new boolean[] {false, false};
-				return new ScalarEvent(anchors.get(0), tags.get(0), implicit, token.getValue(), token.getStyle());
-			}
-		};
-		table[P_BLOCK_SEQUENCE_ENTRY] = new Production() {
-			public Event produce () {
-				if (tokenizer.peekNextTokenType() == BLOCK_ENTRY) {
-					tokenizer.getNextToken();
-					TokenType type = tokenizer.peekNextTokenType();
-					if (type == BLOCK_ENTRY || type == BLOCK_END) {
-						parseStack.add(0, table[P_BLOCK_SEQUENCE_ENTRY]);
-						parseStack.add(0, table[P_EMPTY_SCALAR]);
-					} else {
-						parseStack.add(0, table[P_BLOCK_SEQUENCE_ENTRY]);
-						parseStack.add(0, table[P_BLOCK_NODE]);
-					}
-				}
-				return null;
-			}
-		};
-		table[P_BLOCK_MAPPING_ENTRY] = new Production() {
-			public Event produce () {
-				TokenType type = tokenizer.peekNextTokenType();
-				if (type == KEY) {
-					tokenizer.getNextToken();
-					type = tokenizer.peekNextTokenType();
-					if (type == KEY || type == VALUE || type == BLOCK_END) {
-						parseStack.add(0, table[P_BLOCK_MAPPING_ENTRY]);
-						parseStack.add(0, table[P_BLOCK_MAPPING_ENTRY_VALUE]);
-						parseStack.add(0, table[P_EMPTY_SCALAR]);
-					} else {
-						parseStack.add(0, table[P_BLOCK_MAPPING_ENTRY]);
-						parseStack.add(0, table[P_BLOCK_MAPPING_ENTRY_VALUE]);
-						parseStack.add(0, table[P_BLOCK_NODE_OR_INDENTLESS_SEQUENCE]);
-						parseStack.add(0, table[P_PROPERTIES]);
-					}
-				} else if (type == VALUE) {
-					parseStack.add(0, table[P_BLOCK_MAPPING_ENTRY]);
-					parseStack.add(0, table[P_BLOCK_MAPPING_ENTRY_VALUE]);
-					parseStack.add(0, table[P_EMPTY_SCALAR]);
-				}
-				return null;
-			}
-		};
-		table[P_BLOCK_MAPPING_ENTRY_VALUE] = new Production() {
-			public Event produce () {
-				TokenType type = tokenizer.peekNextTokenType();
-				if (type == VALUE) {
-					tokenizer.getNextToken();
-					type = tokenizer.peekNextTokenType();
-					if (type == KEY || type == VALUE || type == BLOCK_END)
-						parseStack.add(0, table[P_EMPTY_SCALAR]);
-					else {
-						parseStack.add(0, table[P_BLOCK_NODE_OR_INDENTLESS_SEQUENCE]);
-						parseStack.add(0, table[P_PROPERTIES]);
-					}
-				} else if (type == KEY) parseStack.add(0, table[P_EMPTY_SCALAR]);
-				return null;
-			}
-		};
-		table[P_BLOCK_NODE_OR_INDENTLESS_SEQUENCE] = new Production() {
-			public Event produce () {
+			} else if (tokenizer.peekNextTokenType() == TAG) {
+				TagToken tagToken = (TagToken)tokenizer.getNextToken();
+				tagHandle = tagToken.getHandle();
+				tagSuffix = tagToken.getSuffix();
+				if (tokenizer.peekNextTokenType() == ANCHOR) anchor = ((AnchorToken)tokenizer.getNextToken()).getInstanceName();
+			}
+			String tag = null;
+			if (tagHandle != null) {
+				if (!tagHandles.containsKey(tagHandle)) throw new ParserException("Undefined tag handle: " + tagHandle);
+				tag = tagHandles.get(tagHandle) + tagSuffix;
+			} else
+				tag = tagSuffix;
+			if (propertiesSize == tags.length) {
+				String[] newTags = new String[propertiesSize << 1];
+				System.arraycopy(tags, 0, newTags, 0, propertiesSize);
+				tags = newTags;
+				String[] newAnchors = new String[propertiesSize << 1];
+				System.arraycopy(anchors, 0, newAnchors, 0, propertiesSize);
+				anchors = newAnchors;
+			}
+			anchors[propertiesSize] = anchor;
+			tags[propertiesSize++] = tag;
+			return null;
+		}
+		case P_PROPERTIES_END: {
+			propertiesSize--;
+			anchors[propertiesSize] = null;
+			tags[propertiesSize] = null;
+			return null;
+		}
+		case P_FLOW_CONTENT: {
+			TokenType type = tokenizer.peekNextTokenType();
+			if (type == FLOW_SEQUENCE_START)
+				push(P_FLOW_SEQUENCE);
+			else if (type == FLOW_MAPPING_START)
+				push(P_FLOW_MAPPING);
+			else if (type == SCALAR)
+				push(P_SCALAR);
+			else
+				throw new ParserException("Expected a sequence, mapping, or scalar but found: " + type);
+			return null;
+		}
+		case P_BLOCK_SEQUENCE: {
+			push(P_BLOCK_SEQUENCE_END);
+			push(P_BLOCK_SEQUENCE_ENTRY);
+			push(P_BLOCK_SEQUENCE_START);
+			return null;
+		}
+		case P_BLOCK_MAPPING: {
+			push(P_BLOCK_MAPPING_END);
+			push(P_BLOCK_MAPPING_ENTRY);
+			push(P_BLOCK_MAPPING_START);
+			return null;
+		}
+		case P_FLOW_SEQUENCE: {
+			push(P_FLOW_SEQUENCE_END);
+			push(P_FLOW_SEQUENCE_ENTRY);
+			push(P_FLOW_SEQUENCE_START);
+			return null;
+		}
+		case P_FLOW_MAPPING: {
+			push(P_FLOW_MAPPING_END);
+			push(P_FLOW_MAPPING_ENTRY);
+			push(P_FLOW_MAPPING_START);
+			return null;
+		}
+		case P_SCALAR: {
+			ScalarToken token = (ScalarToken)tokenizer.getNextToken();
+			if (skipping) return SKIPPED_SCALAR;
+			boolean[] implicit = null;
+			if (token.getPlain() && tags[propertiesSize - 1] == null || "!".equals(tags[propertiesSize - 1]))
+				implicit = new boolean[] {true, false};
+			else if (tags[propertiesSize - 1] == null)
+				implicit = new boolean[] {false, true};
+			else
+				implicit = new boolean[] {false, false};
+			return new ScalarEvent(anchors[propertiesSize - 1], tags[propertiesSize - 1], implicit, token.getChars(), token.getStyle());
+		}
+		case P_BLOCK_SEQUENCE_ENTRY: {
+			if (tokenizer.peekNextTokenType() == BLOCK_ENTRY) {
+				tokenizer.getNextToken();
 				TokenType type = tokenizer.peekNextTokenType();
-				if (type == ALIAS)
-					parseStack.add(0, table[P_ALIAS]);
-				else if (type == BLOCK_ENTRY) {
-					parseStack.add(0, table[P_INDENTLESS_BLOCK_SEQUENCE]);
+				if (type == BLOCK_ENTRY || type == BLOCK_END) {
+					push(P_BLOCK_SEQUENCE_ENTRY);
+					push(P_EMPTY_SCALAR);
 				} else {
-					parseStack.add(0, table[P_BLOCK_CONTENT]);
+					push(P_BLOCK_SEQUENCE_ENTRY);
+					push(P_BLOCK_NODE);
 				}
-				return null;
-			}
-		};
-		table[P_BLOCK_SEQUENCE_START] = new Production() {
-			public Event produce () {
-				boolean implicit = tags.get(0) == null || tags.get(0).equals("!");
-				tokenizer.getNextToken();
-				return new SequenceStartEvent(anchors.get(0), tags.get(0), implicit, false);
 			}
-		};
-		table[P_BLOCK_SEQUENCE_END] = new Production() {
-			public Event produce () {
-				if (tokenizer.peekNextTokenType() != BLOCK_END)
-					throw new ParserException("Expected a 'block end' but found: " + tokenizer.peekNextTokenType());
-				tokenizer.getNextToken();
-				return Event.SEQUENCE_END;
-			}
-		};
-		table[P_BLOCK_MAPPING_START] = new Production() {
-			public Event produce () {
-				boolean implicit = tags.get(0) == null || tags.get(0).equals("!");
-				tokenizer.getNextToken();
-				return new MappingStartEvent(anchors.get(0), tags.get(0), implicit, false);
-			}
-		};
-		table[P_BLOCK_MAPPING_END] = new Production() {
-			public Event produce () {
-				if (tokenizer.peekNextTokenType() != BLOCK_END)
-					throw new ParserException("Expected a 'block end' but found: " + tokenizer.peekNextTokenType());
+			return null;
+		}
+		case P_BLOCK_MAPPING_ENTRY: {
+			TokenType type = tokenizer.peekNextTokenType();
+			if (type == KEY) {
 				tokenizer.getNextToken();
-				return Event.MAPPING_END;
-			}
-		};
-		table[P_INDENTLESS_BLOCK_SEQUENCE] = new Production() {
-			public Event produce () {
-				parseStack.add(0, table[P_BLOCK_INDENTLESS_SEQUENCE_END]);
-				parseStack.add(0, table[P_INDENTLESS_BLOCK_SEQUENCE_ENTRY]);
-				parseStack.add(0, table[P_BLOCK_INDENTLESS_SEQUENCE_START]);
-				return null;
-			}
-		};
-		table[P_BLOCK_INDENTLESS_SEQUENCE_START] = new Production() {
-			public Event produce () {
-				boolean implicit = tags.get(0) == null || tags.get(0).equals("!");
-				return new SequenceStartEvent(anchors.get(0), tags.get(0), implicit, false);
-			}
-		};
-		table[P_INDENTLESS_BLOCK_SEQUENCE_ENTRY] = new Production() {
-			public Event produce () {
-				if (tokenizer.peekNextTokenType() == BLOCK_ENTRY) {
-					tokenizer.getNextToken();
-					TokenType type = tokenizer.peekNextTokenType();
-					if (type == BLOCK_ENTRY || type == KEY || type == VALUE || type == BLOCK_END) {
-						parseStack.add(0, table[P_INDENTLESS_BLOCK_SEQUENCE_ENTRY]);
-						parseStack.add(0, table[P_EMPTY_SCALAR]);
-					} else {
-						parseStack.add(0, table[P_INDENTLESS_BLOCK_SEQUENCE_ENTRY]);
-						parseStack.add(0, table[P_BLOCK_NODE]);
-					}
+				type = tokenizer.peekNextTokenType();
+				if (type == KEY || type == VALUE || type == BLOCK_END) {
+					push(P_BLOCK_MAPPING_ENTRY);
+					push(P_BLOCK_MAPPING_ENTRY_VALUE);
+					push(P_EMPTY_SCALAR);
+				} else {
+					push(P_BLOCK_MAPPING_ENTRY);
+					push(P_BLOCK_MAPPING_ENTRY_VALUE);
+					push(P_BLOCK_NODE_OR_INDENTLESS_SEQUENCE);
+					push(P_PROPERTIES);
 				}
-				return null;
-			}
-		};
-		table[P_BLOCK_INDENTLESS_SEQUENCE_END] = new Production() {
-			public Event produce () {
-				return Event.SEQUENCE_END;
+			} else if (type == VALUE) {
+				push(P_BLOCK_MAPPING_ENTRY);
+				push(P_BLOCK_MAPPING_ENTRY_VALUE);
+				push(P_EMPTY_SCALAR);
 			}
-		};
-		table[P_FLOW_SEQUENCE_START] = new Production() {
-			public Event produce () {
-				boolean implicit = tags.get(0) == null || tags.get(0).equals("!");
+			return null;
+		}
+		case P_BLOCK_MAPPING_ENTRY_VALUE: {
+			TokenType type = tokenizer.peekNextTokenType();
+			if (type == VALUE) {
 				tokenizer.getNextToken();
-				return new SequenceStartEvent(anchors.get(0), tags.get(0), implicit, true);
-			}
-		};
-		table[P_FLOW_SEQUENCE_ENTRY] = new Production() {
-			public Event produce () {
-				if (tokenizer.peekNextTokenType() != FLOW_SEQUENCE_END) {
-					if (tokenizer.peekNextTokenType() == KEY) {
-						parseStack.add(0, table[P_FLOW_SEQUENCE_ENTRY]);
-						parseStack.add(0, table[P_FLOW_ENTRY_MARKER]);
-						parseStack.add(0, table[P_FLOW_INTERNAL_MAPPING_END]);
-						parseStack.add(0, table[P_FLOW_INTERNAL_VALUE]);
-						parseStack.add(0, table[P_FLOW_INTERNAL_CONTENT]);
-						parseStack.add(0, table[P_FLOW_INTERNAL_MAPPING_START]);
-					} else {
-						parseStack.add(0, table[P_FLOW_SEQUENCE_ENTRY]);
-						parseStack.add(0, table[P_FLOW_NODE]);
-						parseStack.add(0, table[P_FLOW_ENTRY_MARKER]);
-					}
+				type = tokenizer.peekNextTokenType();
+				if (type == KEY || type == VALUE || type == BLOCK_END)
+					push(P_EMPTY_SCALAR);
+				else {
+					push(P_BLOCK_NODE_OR_INDENTLESS_SEQUENCE);
+					push(P_PROPERTIES);
 				}
-				return null;
-			}
-		};
-		table[P_FLOW_SEQUENCE_END] = new Production() {
-			public Event produce () {
+			} else if (type == KEY) push(P_EMPTY_SCALAR);
+			return null;
+		}
+		case P_BLOCK_NODE_OR_INDENTLESS_SEQUENCE: {
+			TokenType type = tokenizer.peekNextTokenType();
+			if (type == ALIAS)
+				push(P_ALIAS);
+			else if (type == BLOCK_ENTRY) {
+				push(P_INDENTLESS_BLOCK_SEQUENCE);
+			} else {
+				push(P_BLOCK_CONTENT);
+			}
+			return null;
+		}
+		case P_BLOCK_SEQUENCE_START: {
+			tokenizer.getNextToken();
+			if (skipping) return SKIPPED_SEQUENCE_START;
+			boolean implicit = tags[propertiesSize - 1] == null || tags[propertiesSize - 1].equals("!");
+			return new SequenceStartEvent(anchors[propertiesSize - 1], tags[propertiesSize - 1], implicit, false);
+		}
+		case P_BLOCK_SEQUENCE_END: {
+			if (tokenizer.peekNextTokenType() != BLOCK_END)
+				throw new ParserException("Expected a 'block end' but found: " + tokenizer.peekNextTokenType());
+			tokenizer.getNextToken();
+			return Event.SEQUENCE_END;
+		}
+		case P_BLOCK_MAPPING_START: {
+			tokenizer.getNextToken();
+			if (skipping) return SKIPPED_MAPPING_START;
+			boolean implicit = tags[propertiesSize - 1] == null || tags[propertiesSize - 1].equals("!");
+			return new MappingStartEvent(anchors[propertiesSize - 1], tags[propertiesSize - 1], implicit, false);
+		}
+		case P_BLOCK_MAPPING_END: {
+			if (tokenizer.peekNextTokenType() != BLOCK_END)
+				throw new ParserException("Expected a 'block end' but found: " + tokenizer.peekNextTokenType());
+			tokenizer.getNextToken();
+			return Event.MAPPING_END;
+		}
+		case P_INDENTLESS_BLOCK_SEQUENCE: {
+			push(P_BLOCK_INDENTLESS_SEQUENCE_END);
+			push(P_INDENTLESS_BLOCK_SEQUENCE_ENTRY);
+			push(P_BLOCK_INDENTLESS_SEQUENCE_START);
+			return null;
+		}
+		case P_BLOCK_INDENTLESS_SEQUENCE_START: {
+			if (skipping) return SKIPPED_SEQUENCE_START;
+			boolean implicit = tags[propertiesSize - 1] == null || tags[propertiesSize - 1].equals("!");
+			return new SequenceStartEvent(anchors[propertiesSize - 1], tags[propertiesSize - 1], implicit, false);
+		}
+		case P_INDENTLESS_BLOCK_SEQUENCE_ENTRY: {
+			if (tokenizer.peekNextTokenType() == BLOCK_ENTRY) {
 				tokenizer.getNextToken();
-				return Event.SEQUENCE_END;
+				TokenType type = tokenizer.peekNextTokenType();
+				if (type == BLOCK_ENTRY || type == KEY || type == VALUE || type == BLOCK_END) {
+					push(P_INDENTLESS_BLOCK_SEQUENCE_ENTRY);
+					push(P_EMPTY_SCALAR);
+				} else {
+					push(P_INDENTLESS_BLOCK_SEQUENCE_ENTRY);
+					push(P_BLOCK_NODE);
+				}
 			}
-		};
-		table[P_FLOW_MAPPING_START] = new Production() {
-			public Event produce () {
-				boolean implicit = tags.get(0) == null || tags.get(0).equals("!");
-				tokenizer.getNextToken();
-				return new MappingStartEvent(anchors.get(0), tags.get(0), implicit, true);
+			return null;
+		}
+		case P_BLOCK_INDENTLESS_SEQUENCE_END: {
+			return Event.SEQUENCE_END;
+		}
+		case P_FLOW_SEQUENCE_START: {
+			tokenizer.getNextToken();
+			if (skipping) return SKIPPED_SEQUENCE_START;
+			boolean implicit = tags[propertiesSize - 1] == null || tags[propertiesSize - 1].equals("!");
+			return new SequenceStartEvent(anchors[propertiesSize - 1], tags[propertiesSize - 1], implicit, true);
+		}
+		case P_FLOW_SEQUENCE_ENTRY: {
+			if (tokenizer.peekNextTokenType() != FLOW_SEQUENCE_END) {
+				if (tokenizer.peekNextTokenType() == KEY) {
+					push(P_FLOW_SEQUENCE_ENTRY);
+					push(P_FLOW_ENTRY_MARKER);
+					push(P_FLOW_INTERNAL_MAPPING_END);
+					push(P_FLOW_INTERNAL_VALUE);
+					push(P_FLOW_INTERNAL_CONTENT);
+					push(P_FLOW_INTERNAL_MAPPING_START);
+				} else {
+					push(P_FLOW_SEQUENCE_ENTRY);
+					push(P_FLOW_NODE);
+					push(P_FLOW_ENTRY_MARKER);
+				}
 			}
-		};
-		table[P_FLOW_MAPPING_ENTRY] = new Production() {
-			public Event produce () {
-				if (tokenizer.peekNextTokenType() != FLOW_MAPPING_END) {
-					if (tokenizer.peekNextTokenType() == KEY) {
-						parseStack.add(0, table[P_FLOW_MAPPING_ENTRY]);
-						parseStack.add(0, table[P_FLOW_ENTRY_MARKER]);
-						parseStack.add(0, table[P_FLOW_MAPPING_INTERNAL_VALUE]);
-						parseStack.add(0, table[P_FLOW_MAPPING_INTERNAL_CONTENT]);
-					} else {
-						parseStack.add(0, table[P_FLOW_MAPPING_ENTRY]);
-						parseStack.add(0, table[P_FLOW_NODE]);
-						parseStack.add(0, table[P_FLOW_ENTRY_MARKER]);
-					}
+			return null;
+		}
+		case P_FLOW_SEQUENCE_END: {
+			tokenizer.getNextToken();
+			return Event.SEQUENCE_END;
+		}
+		case P_FLOW_MAPPING_START: {
+			tokenizer.getNextToken();
+			if (skipping) return SKIPPED_MAPPING_START;
+			boolean implicit = tags[propertiesSize - 1] == null || tags[propertiesSize - 1].equals("!");
+			return new MappingStartEvent(anchors[propertiesSize - 1], tags[propertiesSize - 1], implicit, true);
+		}
+		case P_FLOW_MAPPING_ENTRY: {
+			if (tokenizer.peekNextTokenType() != FLOW_MAPPING_END) {
+				if (tokenizer.peekNextTokenType() == KEY) {
+					push(P_FLOW_MAPPING_ENTRY);
+					push(P_FLOW_ENTRY_MARKER);
+					push(P_FLOW_MAPPING_INTERNAL_VALUE);
+					push(P_FLOW_MAPPING_INTERNAL_CONTENT);
+				} else {
+					push(P_FLOW_MAPPING_ENTRY);
+					push(P_FLOW_NODE);
+					push(P_FLOW_ENTRY_MARKER);
 				}
-				return null;
 			}
-		};
-		table[P_FLOW_MAPPING_END] = new Production() {
-			public Event produce () {
+			return null;
+		}
+		case P_FLOW_MAPPING_END: {
+			tokenizer.getNextToken();
+			return Event.MAPPING_END;
+		}
+		case P_FLOW_INTERNAL_MAPPING_START: {
+			tokenizer.getNextToken();
+			if (skipping) return SKIPPED_MAPPING_START;
+			return new MappingStartEvent(null, null, true, true);
+		}
+		case P_FLOW_INTERNAL_CONTENT: {
+			TokenType type = tokenizer.peekNextTokenType();
+			if (type == VALUE || type == FLOW_ENTRY || type == FLOW_SEQUENCE_END)
+				push(P_EMPTY_SCALAR);
+			else
+				push(P_FLOW_NODE);
+			return null;
+		}
+		case P_FLOW_INTERNAL_VALUE: {
+			if (tokenizer.peekNextTokenType() == VALUE) {
 				tokenizer.getNextToken();
-				return Event.MAPPING_END;
-			}
-		};
-		table[P_FLOW_INTERNAL_MAPPING_START] = new Production() {
-			public Event produce () {
+				if (tokenizer.peekNextTokenType() == FLOW_ENTRY || tokenizer.peekNextTokenType() == FLOW_SEQUENCE_END)
+					push(P_EMPTY_SCALAR);
+				else
+					push(P_FLOW_NODE);
+			} else
+				push(P_EMPTY_SCALAR);
+			return null;
+		}
+		case P_FLOW_INTERNAL_MAPPING_END: {
+			return Event.MAPPING_END;
+		}
+		case P_FLOW_ENTRY_MARKER: {
+			if (tokenizer.peekNextTokenType() == FLOW_ENTRY) tokenizer.getNextToken();
+			return null;
+		}
+		case P_FLOW_NODE: {
+			if (tokenizer.peekNextTokenType() == ALIAS)
+				push(P_ALIAS);
+			else {
+				push(P_PROPERTIES_END);
+				push(P_FLOW_CONTENT);
+				push(P_PROPERTIES);
+			}
+			return null;
+		}
+		case P_FLOW_MAPPING_INTERNAL_CONTENT: {
+			TokenType type = tokenizer.peekNextTokenType();
+			if (type == VALUE || type == FLOW_ENTRY || type == FLOW_MAPPING_END)
+				push(P_EMPTY_SCALAR);
+			else {
 				tokenizer.getNextToken();
-				return new MappingStartEvent(null, null, true, true);
+				push(P_FLOW_NODE);
 			}
-		};
-		table[P_FLOW_INTERNAL_CONTENT] = new Production() {
-			public Event produce () {
-				TokenType type = tokenizer.peekNextTokenType();
-				if (type == VALUE || type == FLOW_ENTRY || type == FLOW_SEQUENCE_END)
-					parseStack.add(0, table[P_EMPTY_SCALAR]);
+			return null;
+		}
+		case P_FLOW_MAPPING_INTERNAL_VALUE: {
+			if (tokenizer.peekNextTokenType() == VALUE) {
+				tokenizer.getNextToken();
+				if (tokenizer.peekNextTokenType() == FLOW_ENTRY || tokenizer.peekNextTokenType() == FLOW_MAPPING_END)
+					push(P_EMPTY_SCALAR);
 				else
-					parseStack.add(0, table[P_FLOW_NODE]);
-				return null;
-			}
-		};
-		table[P_FLOW_INTERNAL_VALUE] = new Production() {
-			public Event produce () {
-				if (tokenizer.peekNextTokenType() == VALUE) {
-					tokenizer.getNextToken();
-					if (tokenizer.peekNextTokenType() == FLOW_ENTRY || tokenizer.peekNextTokenType() == FLOW_SEQUENCE_END)
-						parseStack.add(0, table[P_EMPTY_SCALAR]);
-					else
-						parseStack.add(0, table[P_FLOW_NODE]);
-				} else
-					parseStack.add(0, table[P_EMPTY_SCALAR]);
-				return null;
-			}
-		};
-		table[P_FLOW_INTERNAL_MAPPING_END] = new Production() {
-			public Event produce () {
-				return Event.MAPPING_END;
-			}
-		};
-		table[P_FLOW_ENTRY_MARKER] = new Production() {
-			public Event produce () {
-				if (tokenizer.peekNextTokenType() == FLOW_ENTRY) tokenizer.getNextToken();
-				return null;
-			}
-		};
-		table[P_FLOW_NODE] = new Production() {
-			public Event produce () {
-				if (tokenizer.peekNextTokenType() == ALIAS)
-					parseStack.add(0, table[P_ALIAS]);
-				else {
-					parseStack.add(0, table[P_PROPERTIES_END]);
-					parseStack.add(0, table[P_FLOW_CONTENT]);
-					parseStack.add(0, table[P_PROPERTIES]);
-				}
-				return null;
-			}
-		};
-		table[P_FLOW_MAPPING_INTERNAL_CONTENT] = new Production() {
-			public Event produce () {
-				TokenType type = tokenizer.peekNextTokenType();
-				if (type == VALUE || type == FLOW_ENTRY || type == FLOW_MAPPING_END)
-					parseStack.add(0, table[P_EMPTY_SCALAR]);
-				else {
-					tokenizer.getNextToken();
-					parseStack.add(0, table[P_FLOW_NODE]);
-				}
-				return null;
-			}
-		};
-		table[P_FLOW_MAPPING_INTERNAL_VALUE] = new Production() {
-			public Event produce () {
-				if (tokenizer.peekNextTokenType() == VALUE) {
-					tokenizer.getNextToken();
-					if (tokenizer.peekNextTokenType() == FLOW_ENTRY || tokenizer.peekNextTokenType() == FLOW_MAPPING_END)
-						parseStack.add(0, table[P_EMPTY_SCALAR]);
-					else
-						parseStack.add(0, table[P_FLOW_NODE]);
-				} else
-					parseStack.add(0, table[P_EMPTY_SCALAR]);
-				return null;
-			}
-		};
-		table[P_ALIAS] = new Production() {
-			public Event produce () {
-				AliasToken token = (AliasToken)tokenizer.getNextToken();
-				return new AliasEvent(token.getInstanceName());
-			}
-		};
-		table[P_EMPTY_SCALAR] = new Production() {
-			public Event produce () {
-				return new ScalarEvent(null, null, new boolean[] {true, false}, null, (char)0);
-			}
-		};
+					push(P_FLOW_NODE);
+			} else
+				push(P_EMPTY_SCALAR);
+			return null;
+		}
+		case P_ALIAS: {
+			AliasToken token = (AliasToken)tokenizer.getNextToken();
+			if (skipping) return SKIPPED_ALIAS;
+			return new AliasEvent(token.getInstanceName());
+		}
+		case P_EMPTY_SCALAR: {
+			if (skipping) return SKIPPED_SCALAR;
+			return new ScalarEvent(null, null, new boolean[] {true, false}, null, (char)0);
+		}
+		default:
+			throw new IllegalStateException("Unknown production: " + production);
+		}
 	}
 
 	DocumentStartEvent processDirectives (boolean explicit) {
@@ -625,10 +618,6 @@ public class Parser {
 		return new DocumentStartEvent(explicit, version, tags);
 	}
 
-	static interface Production {
-		public Event produce ();
-	}
-
 	static private final int P_STREAM = 0;
 	static private final int P_STREAM_START = 1; // TERMINAL
 	static private final int P_STREAM_END = 2; // TERMINAL
@@ -676,6 +665,12 @@ public class Parser {
 	static private final int P_ALIAS = 44;
 	static private final int P_EMPTY_SCALAR = 45;
 
+	// Returned while skipping, so no events are allocated for the skipped nodes.
+	static private final Event SKIPPED_SCALAR = new Event(EventType.SCALAR);
+	static private final Event SKIPPED_ALIAS = new Event(EventType.ALIAS);
+	static private final Event SKIPPED_SEQUENCE_START = new Event(EventType.SEQUENCE_START);
+	static private final Event SKIPPED_MAPPING_START = new Event(EventType.MAPPING_START);
+
 	static private final Map<String, String> DEFAULT_TAGS_1_0 = new HashMap();
 	static private final Map<String, String> DEFAULT_TAGS_1_1 = new HashMap();
 	static {
@@ -23,19 +23,46 @@ import java.util.Arrays;
 public class ScalarEvent extends NodeEvent {
 	public final String tag;
 	public final boolean[] implicit;
+	/** The scalar value. This is null when the event was created from a {@link CharSequence} that is not a String, such as a
+	 * scalar slice, so {@link #getValue()} should be used by code that may receive such events. */
 	public final String value;
 	public final char style;
+	private final CharSequence chars;
+	private String charsValue;
 
 	public ScalarEvent (String anchor, String tag, boolean[] implicit, String value, char style) {
 		super(EventType.SCALAR, anchor);
 		this.tag = tag;
 		this.implicit = implicit;
 		this.value = value;
+		this.chars = value;
 		this.style = style;
 	}
 
+	/** @param chars The characters of the value. The String is not created until {@link #getValue()} is called. */
+	public ScalarEvent (String anchor, String tag, boolean[] implicit, CharSequence chars, char style) {
+		super(EventType.SCALAR, anchor);
+		this.tag = tag;
+		this.implicit = implicit;
+		value = chars instanceof String ? (String)chars : null;
+		this.chars = chars;
+		this.style = style;
+	}
+
+	public String getValue () {
+		if (value != null) return value;
+		if (charsValue == null && chars != null) charsValue = chars.toString();
+		return charsValue;
+	}
+
+	/** Returns the characters of the value without creating a String. */
+	public CharSequence getChars () {
+		if (value != null) return value;
+		return charsValue != null ? charsValue : chars;
+	}
+
 	public String toString () {
-		return "<" + type + " value='" + value + "' anchor='" + anchor + "' tag='" + tag + "' implicit='"
+		return "<" + type + " value='" + getValue() + "' anchor='" + anchor + "' tag='" + tag + "' implicit='"
 			+ Arrays.toString(implicit) + "' style='" + (style == 0 ? "" : style) + "'>";
 	}
 }
@@ -19,21 +19,174 @@ package com.esotericsoftware.yamlbeans.scalar;
 import com.esotericsoftware.yamlbeans.YamlException;
 
 import java.text.ParseException;
+import java.util.Calendar;
 import java.util.Date;
+import java.util.TimeZone;
 
-/** @author <a href="mailto:misc@n4te.com">Nathan Sweet</a> */
+/** Reads and writes dates in the "yyyy-MM-dd HH:mm:ss" form, in the default time zone when the serializer was created. YAML
+ * timestamps, with an optional fraction and time zone, and milliseconds since the epoch are parsed directly. Other forms are
+ * tried with a number of date formats. Safe to share between threads.
+ * @author <a href="mailto:misc@n4te.com">Nathan Sweet</a> */
 public class DateSerializer implements ScalarSerializer<Date> {
-	private DateTimeParser dateParser = new DateTimeParser();
+	private final TimeZone timeZone = TimeZone.getDefault();
+	private final ThreadLocal<Calendar> calendars = new ThreadLocal<Calendar>() {
+		protected Calendar initialValue () {
+			return Calendar.getInstance(timeZone);
+		}
+	};
+	/** Not thread safe, used only for forms that are not parsed directly. */
+	private final DateTimeParser dateParser = new DateTimeParser();
 
 	public Date read (String value) throws YamlException {
-		try {
-			return dateParser.parse(value);
-		} catch (ParseException ex) {
-			throw new YamlException("Invalid date: " + value, ex);
+		Date date = parseTimestamp(value);
+		if (date != null) return date;
+		synchronized (dateParser) {
+			try {
+				return dateParser.parse(value);
+			} catch (ParseException ex) {
+				throw new YamlException("Invalid date: " + value, ex);
+			}
 		}
 	}
 
 	public String write (Date object) throws YamlException {
-		return dateParser.format(object);
+		Calendar calendar = calendars.get();
+		calendar.setTime(object);
+		StringBuilder buffer = new StringBuilder(19);
+		append(buffer, calendar.get(Calendar.YEAR), 4).append('-');
+		append(buffer, calendar.get(Calendar.MONTH) + 1, 2).append('-');
+		append(buffer, calendar.get(Calendar.DAY_OF_MONTH), 2).append(' ');
+		append(buffer, calendar.get(Calendar.HOUR_OF_DAY), 2).append(':');
+		append(buffer, calendar.get(Calendar.MINUTE), 2).append(':');
+		append(buffer, calendar.get(Calendar.SECOND), 2);
+		return buffer.toString();
+	}
+
+	/** Parses milliseconds since the epoch, "yyyy-M-d" and the YAML timestamp form "yyyy-M-d H:mm:ss" with "T" or a space
+	 * between the date and time, optional seconds, an optional fraction of a second and an optional time zone of "Z" or an
+	 * offset. Without a time zone the default is used, as for the other forms.
+	 * @return null if the value is not in one of these forms. */
+	private Date parseTimestamp (String value) {
+		int n = value.length();
+		if (n > 1 && value.charAt(0) == '-') {
+			if (digitsEnd(value, 1) == n && n <= 19) return new Date(-number(value, 1, n));
+			return null;
+		}
+		int i = digitsEnd(value, 0);
+		if (i == n) return n > 0 && n <= 18 ? new Date(number(value, 0, n)) : null;
+
+		if (i != 4 || value.charAt(4) != '-') return null;
+		int year = (int)number(value, 0, 4);
+		int start = 5;
+		i = digitsEnd(value, start);
+		if (i - start < 1 || i - start > 2 || i == n || value.charAt(i) != '-') return null;
+		int month = (int)number(value, start, i);
+		start = i + 1;
+		i = digitsEnd(value, start);
+		if (i - start < 1 || i - start > 2) return null;
+		int day = (int)number(value, start, i);
+		if (i == n) return localDate(year, month, day, 0, 0, 0, 0);
+
+		char c = value.charAt(i);
+		if (c != 'T' && c != 't' && c != ' ') return null;
+		start = i + 1;
+		i = digitsEnd(value, start);
+		if (i - start < 1 || i - start > 2 || i == n || value.charAt(i) != ':') return null;
+		int hour = (int)number(value, start, i);
+		start = i + 1;
+		i = digitsEnd(value, start);
+		if (i - start != 2) return null;
+		int minute = (int)number(value, start, i), second = 0, millis = 0;
+		if (i < n && value.charAt(i) == ':') {
+			start = i + 1;
+			i = digitsEnd(value, start);
+			if (i - start != 2) return null;
+			second = (int)number(value, start, i);
+		}
+		if (i < n && value.charAt(i) == '.') {
+			start = i + 1;
+			i = digitsEnd(value, start);
+			// Digits past milliseconds are dropped.
+			for (int d = start; d < start + 3; d++)
+				millis = millis * 10 + (d < i ? value.charAt(d) - '0' : 0);
+		}
+		if (i == n) return localDate(year, month, day, hour, minute, second, millis);
+
+		while (i < n && (value.charAt(i) == ' ' || value.charAt(i) == '\t'))
+			i++;
+		if (i == n) return null;
+		int offset = 0;
+		c = value.charAt(i);
+		if (c == 'Z' && i + 1 == n)
+			offset = 0;
+		else if (c == '+' || c == '-') {
+			start = i + 1;
+			i = digitsEnd(value, start);
+			int offsetHours, offsetMinutes = 0;
+			if (i - start == 4) {
+				offsetHours = (int)number(value, start, start + 2);
+				offsetMinutes = (int)number(value, start + 2, i);
+			} else if (i - start == 1 || i - start == 2) {
+				offsetHours = (int)number(value, start, i);
+				if (i < n && value.charAt(i) == ':') {
+					start = i + 1;
+					i = digitsEnd(value, start);
+					if (i - start != 2) return null;
+					offsetMinutes = (int)number(value, start, i);
+				}
+			} else
+				return null;
+			if (i != n || offsetHours > 18 || offsetMinutes > 59) return null;
+			offset = offsetHours * 3600 + offsetMinutes * 60;
+			if (c == '-') offset = -offset;
+		} else
+			return null;
+
+		if (month < 1 || month > 12 || day < 1 || day > 31 || hour > 23 || minute > 59 || second > 59) return null;
+		long seconds = daysSinceEpoch(year, month, day) * 86400 + hour * 3600 + minute * 60 + second - offset;
+		return new Date(seconds * 1000 + millis);
+	}
+
+	/** Returns the date for the fields in the time zone, computed as "yyyy-MM-dd HH:mm:ss" parsing would. */
+	private Date localDate (int year, int month, int day, int hour, int minute, int second, int millis) {
+		Calendar calendar = calendars.get();
+		calendar.clear();
+		calendar.set(year, month - 1, day, hour, minute, second);
+		calendar.set(Calendar.MILLISECOND, millis);
+		return calendar.getTime();
+	}
+
+	/** Returns the number of days from 1970-01-01 to the date in the proleptic Gregorian calendar. */
+	static private long daysSinceEpoch (int year, int month, int day) {
+		if (month <= 2) year--;
+		int era = (year >= 0 ? year : year - 399) / 400;
+		int yearOfEra = year - era * 400;
+		int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+		int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+		return era * 146097L + dayOfEra - 719468;
+	}
+
+	static private int digitsEnd (String value, int start) {
+		int i = start;
+		for (int n = value.length(); i < n; i++) {
+			char c = value.charAt(i);
+			if (c < '0' || c > '9') break;
+		}
+		return i;
+	}
+
+	static private long number (String value, int start, int end) {
+		long number = 0;
+		for (int i = start; i < end; i++)
+			number = number * 10 + (value.charAt(i) - '0');
+		return number;
+	}
+
+	static private StringBuilder append (StringBuilder buffer, int value, int digits) {
+		int start = buffer.length();
+		buffer.append(value);
+		while (buffer.length() - start < digits)
+			buffer.insert(start, '0');
+		return buffer;
 	}
 }
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2008 Nathan Sweet
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR
+ * IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.esotericsoftware.yamlbeans.scalar;
+
+import com.esotericsoftware.yamlbeans.YamlException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/** Reads and writes a java.time value, such as an Instant, LocalDate, LocalDateTime, OffsetDateTime or Duration, in the ISO-8601
+ * form of its toString and static parse(CharSequence) methods. The class is accessed reflectively so the library still runs on
+ * Java versions without java.time. Safe to share between threads.
+ * @author <a href="mailto:misc@n4te.com">Nathan Sweet</a> */
+public class JavaTimeSerializer implements ScalarSerializer {
+	private final Class type;
+	private final MethodHandle parse;
+
+	/** @throws IllegalArgumentException if the type has no public static parse(CharSequence) method. */
+	public JavaTimeSerializer (Class type) {
+		if (type == null) throw new IllegalArgumentException("type cannot be null.");
+		this.type = type;
+		try {
+			parse = MethodHandles.publicLookup().findStatic(type, "parse", MethodType.methodType(type, CharSequence.class))
+				.asType(MethodType.methodType(Object.class, CharSequence.class));
+		} catch (Exception ex) {
+			throw new IllegalArgumentException("Type has no parse(CharSequence) method: " + type.getName(), ex);
+		}
+	}
+
+	public Object read (String value) throws YamlException {
+		try {
+			return (Object)parse.invokeExact((CharSequence)value);
+		} catch (RuntimeException ex) {
+			throw new YamlException("Invalid " + type.getSimpleName() + ": " + value, ex);
+		} catch (Error ex) {
+			throw ex;
+		} catch (Throwable ex) {
+			throw new YamlException("Error parsing " + type.getSimpleName() + ": " + value, ex);
+		}
+	}
+
+	public String write (Object object) throws YamlException {
+		return object.toString();
+	}
+}
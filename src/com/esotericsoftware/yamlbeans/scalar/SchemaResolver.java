@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) 2008 Nathan Sweet
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR
+ * IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.esotericsoftware.yamlbeans.scalar;
+
+import java.math.BigInteger;
+
+/** Resolves plain scalars using the implicit types of a YAML schema. Integers are read as Long, or BigInteger if they don't fit,
+ * floats as Double, booleans as Boolean and nulls as null. Anything else is a String. The characters each type can start with
+ * are looked up in a table, so most strings are rejected by their first character. The rest are checked in a single pass
+ * without regular expressions.
+ * @author <a href="mailto:misc@n4te.com">Nathan Sweet</a> */
+public enum SchemaResolver implements ScalarResolver {
+	/** The YAML 1.2 JSON schema: null, true, false and JSON numbers. */
+	JSON("n", "tf", "-0123456789") {
+		boolean isNull (String value) {
+			return value.equals("null");
+		}
+
+		Boolean toBoolean (String value) {
+			if (value.equals("true")) return Boolean.TRUE;
+			if (value.equals("false")) return Boolean.FALSE;
+			return null;
+		}
+
+		Object toNumber (String value) {
+			int n = value.length(), i = 0;
+			boolean negative = value.charAt(0) == '-';
+			if (negative) i++;
+			if (i == n) return null;
+			char c = value.charAt(i);
+			if (c == '0')
+				i++;
+			else if (c >= '1' && c <= '9')
+				i = digitsEnd(value, i, false);
+			else
+				return null;
+			if (i == n) return toInteger(value, negative ? 1 : 0, n, 10, negative);
+			if (value.charAt(i) == '.') i = digitsEnd(value, i + 1, false);
+			i = exponentEnd(value, i, false);
+			return i == n ? Double.valueOf(value) : null;
+		}
+	},
+
+	/** The YAML 1.2 core schema: null, Null, NULL, ~ or empty for null, true or false in lower, title or upper case, decimal
+	 * integers, 0o octal and 0x hexadecimal integers, decimal floats, .inf and .nan. */
+	CORE("nN~", "tTfF", "+-.0123456789") {
+		boolean isNull (String value) {
+			return value.length() == 0 || matches(value, NULLS);
+		}
+
+		Boolean toBoolean (String value) {
+			if (matches(value, CORE_TRUE)) return Boolean.TRUE;
+			if (matches(value, CORE_FALSE)) return Boolean.FALSE;
+			return null;
+		}
+
+		Object toNumber (String value) {
+			int n = value.length(), i = 0;
+			char c = value.charAt(0);
+			boolean negative = c == '-';
+			if (negative || c == '+') {
+				if (++i == n) return null;
+				c = value.charAt(i);
+			}
+			if (c == '.') {
+				Double special = toSpecial(value, i, negative);
+				if (special != null) return special;
+			} else if (i == 0 && c == '0' && n > 2) {
+				char prefix = value.charAt(1);
+				if (prefix == 'o') return isDigits(value, 2, 8, false) ? toInteger(value, 2, n, 8, false) : null;
+				if (prefix == 'x') return isDigits(value, 2, 16, false) ? toInteger(value, 2, n, 16, false) : null;
+			}
+			int start = i;
+			i = digitsEnd(value, start, false);
+			boolean integerDigits = i > start;
+			if (i == n) return integerDigits ? toInteger(value, start, n, 10, negative) : null;
+			if (value.charAt(i) == '.') {
+				int fractionStart = i + 1;
+				i = digitsEnd(value, fractionStart, false);
+				if (!integerDigits && i == fractionStart) return null;
+			} else if (!integerDigits)
+				return null;
+			i = exponentEnd(value, i, false);
+			return i == n ? Double.valueOf(value) : null;
+		}
+	},
+
+	/** The YAML 1.1 types: nulls as for {@link #CORE}, y, yes, true and on or n, no, false and off in lower, title or upper case
+	 * for booleans, and integers and floats with underscores between digits, including 0b binary, octal with a leading 0, 0x
+	 * hexadecimal and base 60 numbers such as 1:30:00. */
+	YAML_1_1("nN~", "yYnNtTfFoO", "+-.0123456789") {
+		boolean isNull (String value) {
+			return value.length() == 0 || matches(value, NULLS);
+		}
+
+		Boolean toBoolean (String value) {
+			if (matches(value, YAML_1_1_TRUE)) return Boolean.TRUE;
+			if (matches(value, YAML_1_1_FALSE)) return Boolean.FALSE;
+			return null;
+		}
+
+		Object toNumber (String value) {
+			int n = value.length(), i = 0;
+			char c = value.charAt(0);
+			boolean negative = c == '-';
+			if (negative || c == '+') {
+				if (++i == n) return null;
+				c = value.charAt(i);
+			}
+			if (c == '.') {
+				Double special = toSpecial(value, i, negative);
+				if (special != null) return special;
+			} else if (c == '0' && i + 2 < n) {
+				char prefix = value.charAt(i + 1);
+				if (prefix == 'b') return isDigits(value, i + 2, 2, true) ? toInteger(value, i + 2, n, 2, negative) : null;
+				if (prefix == 'x') return isDigits(value, i + 2, 16, true) ? toInteger(value, i + 2, n, 16, negative) : null;
+			}
+			if (c == '_') return null;
+			int start = i;
+			i = digitsEnd(value, start, true);
+			boolean integerDigits = i > start;
+			if (i == n) {
+				if (!integerDigits) return null;
+				if (c != '0') return toInteger(value, start, n, 10, negative);
+				if (n - start == 1) return 0L;
+				return isDigits(value, start + 1, 8, true) ? toInteger(value, start + 1, n, 8, negative) : null;
+			}
+			c = value.charAt(i);
+			if (c == ':') {
+				if (!integerDigits) return null;
+				Number result = toInteger(value, start, i, 10, false);
+				while (i < n && value.charAt(i) == ':') {
+					int groupStart = ++i;
+					i = digitsEnd(value, groupStart, false);
+					int digits = i - groupStart;
+					if (digits == 0 || digits > 2 || digits == 2 && value.charAt(groupStart) > '5') return null;
+					int group = Integer.parseInt(value.substring(groupStart, i));
+					if (result instanceof Long && result.longValue() <= (Long.MAX_VALUE - 59) / 60)
+						result = result.longValue() * 60 + group;
+					else
+						result = toBigInteger(result).multiply(SIXTY).add(BigInteger.valueOf(group));
+				}
+				if (i == n) {
+					if (value.charAt(start) == '0') return null;
+					if (result instanceof Long) return negative ? -result.longValue() : result;
+					BigInteger big = negative ? ((BigInteger)result).negate() : (BigInteger)result;
+					return big.bitLength() < 64 ? (Number)big.longValue() : big;
+				}
+				if (value.charAt(i) != '.' || digitsEnd(value, i + 1, true) != n) return null;
+				double sum = result.doubleValue() + Double.parseDouble("0" + removeUnderscores(value.substring(i)));
+				return negative ? -sum : sum;
+			}
+			if (c != '.') return null;
+			int fractionStart = i + 1;
+			i = digitsEnd(value, fractionStart, true);
+			if (!integerDigits && digitsEnd(value, fractionStart, false) == fractionStart) return null;
+			i = exponentEnd(value, i, true);
+			return i == n ? Double.valueOf(removeUnderscores(value)) : null;
+		}
+	};
+
+	static private final int NULL = 1, BOOLEAN = 2, NUMBER = 4;
+	static private final BigInteger SIXTY = BigInteger.valueOf(60);
+	static private final String[] NULLS = {"~", "null", "Null", "NULL"};
+	static private final String[] CORE_TRUE = {"true", "True", "TRUE"}, CORE_FALSE = {"false", "False", "FALSE"};
+	static private final String[] YAML_1_1_TRUE = {"y", "Y", "yes", "Yes", "YES", "true", "True", "TRUE", "on", "On", "ON"};
+	static private final String[] YAML_1_1_FALSE = {"n", "N", "no", "No", "NO", "false", "False", "FALSE", "off", "Off", "OFF"};
+
+	/** For each ASCII character, the types a scalar starting with it may be. */
+	private final byte[] firstChars = new byte[128];
+
+	SchemaResolver (String nullChars, String booleanChars, String numberChars) {
+		for (int i = 0; i < nullChars.length(); i++)
+			firstChars[nullChars.charAt(i)] |= NULL;
+		for (int i = 0; i < booleanChars.length(); i++)
+			firstChars[booleanChars.charAt(i)] |= BOOLEAN;
+		for (int i = 0; i < numberChars.length(); i++)
+			firstChars[numberChars.charAt(i)] |= NUMBER;
+	}
+
+	public Object resolve (String value) {
+		if (value.length() == 0) return isNull(value) ? null : value;
+		char c = value.charAt(0);
+		int types = c < 128 ? firstChars[c] : 0;
+		if (types == 0) return value;
+		if ((types & NULL) != 0 && isNull(value)) return null;
+		if ((types & BOOLEAN) != 0) {
+			Boolean bool = toBoolean(value);
+			if (bool != null) return bool;
+		}
+		if ((types & NUMBER) != 0) {
+			Object number = toNumber(value);
+			if (number != null) return number;
+		}
+		return value;
+	}
+
+	abstract boolean isNull (String value);
+
+	/** @return null if the value is not a boolean. */
+	abstract Boolean toBoolean (String value);
+
+	/** @param value Not empty.
+	 * @return null if the value is not a number. */
+	abstract Object toNumber (String value);
+
+	static boolean matches (String value, String[] candidates) {
+		for (int i = 0, n = candidates.length; i < n; i++)
+			if (candidates[i].equals(value)) return true;
+		return false;
+	}
+
+	/** Returns infinity for .inf, .Inf or .INF at the index, NaN for an unsigned .nan, .NaN or .NAN, otherwise null. */
+	static Double toSpecial (String value, int index, boolean negative) {
+		if (value.length() - index != 4) return null;
+		if (value.startsWith(".inf", index) || value.startsWith(".Inf", index) || value.startsWith(".INF", index))
+			return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+		if (index == 0 && (value.equals(".nan") || value.equals(".NaN") || value.equals(".NAN"))) return Double.NaN;
+		return null;
+	}
+
+	/** Returns the index of the first character from the start that is not a decimal digit or, if allowed, an underscore. */
+	static int digitsEnd (String value, int start, boolean underscores) {
+		int i = start;
+		for (int n = value.length(); i < n; i++) {
+			char c = value.charAt(i);
+			if ((c < '0' || c > '9') && (c != '_' || !underscores)) break;
+		}
+		return i;
+	}
+
+	/** Returns true if the characters from the start to the end of the value are digits in the radix or, if allowed,
+	 * underscores, with at least one digit. */
+	static boolean isDigits (String value, int start, int radix, boolean underscores) {
+		boolean digits = false;
+		for (int i = start, n = value.length(); i < n; i++) {
+			char c = value.charAt(i);
+			if (c == '_' && underscores) continue;
+			if (c >= 128 || Character.digit(c, radix) < 0) return false;
+			digits = true;
+		}
+		return digits;
+	}
+
+	/** Returns the index after an exponent at the index, the index if there is no exponent, or -1 if the exponent is invalid. */
+	static int exponentEnd (String value, int index, boolean signRequired) {
+		int n = value.length();
+		if (index == n || (value.charAt(index) != 'e' && value.charAt(index) != 'E')) return index;
+		int i = index + 1;
+		if (i < n && (value.charAt(i) == '-' || value.charAt(i) == '+'))
+			i++;
+		else if (signRequired)
+			return -1;
+		int end = digitsEnd(value, i, false);
+		return end == i ? -1 : end;
+	}
+
+	/** Returns the integer in the radix from the start to the end of the value, ignoring underscores, as a Long or, if it doesn't
+	 * fit, a BigInteger. The characters must be valid. */
+	static Number toInteger (String value, int start, int end, int radix, boolean negative) {
+		long result = 0;
+		for (int i = start; i < end; i++) {
+			char c = value.charAt(i);
+			if (c == '_') continue;
+			int digit = Character.digit(c, radix);
+			if (result > (Long.MAX_VALUE - digit) / radix) {
+				BigInteger big = new BigInteger(removeUnderscores(value.substring(start, end)), radix);
+				if (negative) big = big.negate();
+				return big.bitLength() < 64 ? (Number)big.longValue() : big;
+			}
+			result = result * radix + digit;
+		}
+		return negative ? -result : result;
+	}
+
+	static BigInteger toBigInteger (Number value) {
+		return value instanceof BigInteger ? (BigInteger)value : BigInteger.valueOf(value.longValue());
+	}
+
+	static String removeUnderscores (String value) {
+		if (value.indexOf('_') == -1) return value;
+		StringBuilder buffer = new StringBuilder(value.length());
+		for (int i = 0, n = value.length(); i < n; i++) {
+			char c = value.charAt(i);
+			if (c != '_') buffer.append(c);
+		}
+		return buffer.toString();
+	}
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2008 Nathan Sweet
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR
+ * IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.esotericsoftware.yamlbeans.tokenizer;
+
+/** A read only view of a range of characters in a char[], used for scalar values to avoid creating a String until one is needed.
+ * The characters must not be modified while the slice is in use. The String is created once and cached.
+ * @author <a href="mailto:misc@n4te.com">Nathan Sweet</a> */
+public class CharSlice implements CharSequence {
+	private final char[] chars;
+	private final int offset, length;
+	private String string;
+
+	public CharSlice (char[] chars, int offset, int length) {
+		if (chars == null) throw new IllegalArgumentException("chars cannot be null.");
+		if (offset < 0 || length < 0 || offset + length > chars.length)
+			throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + length + ", chars: " + chars.length);
+		this.chars = chars;
+		this.offset = offset;
+		this.length = length;
+	}
+
+	public int length () {
+		return length;
+	}
+
+	public char charAt (int index) {
+		if (index < 0 || index >= length) throw new IndexOutOfBoundsException("index: " + index + ", length: " + length);
+		return chars[offset + index];
+	}
+
+	public CharSequence subSequence (int start, int end) {
+		if (start < 0 || end > length || start > end)
+			throw new IndexOutOfBoundsException("start: " + start + ", end: " + end + ", length: " + length);
+		return new CharSlice(chars, offset + start, end - start);
+	}
+
+	/** Returns true if the characters in this slice are the same as the specified characters. */
+	public boolean contentEquals (CharSequence value) {
+		if (value.length() != length) return false;
+		char[] chars = this.chars;
+		for (int i = 0, ii = offset; i < length; i++, ii++)
+			if (chars[ii] != value.charAt(i)) return false;
+		return true;
+	}
+
+	public String toString () {
+		if (string == null) string = new String(chars, offset, length);
+		return string;
+	}
+}
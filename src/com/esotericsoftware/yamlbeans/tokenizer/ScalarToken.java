@@ -18,6 +18,7 @@ package com.esotericsoftware.yamlbeans.tokenizer;
 
 /** @author <a href="mailto:misc@n4te.com">Nathan Sweet</a> */
 public class ScalarToken extends Token {
+	private CharSequence chars;
 	private String value;
 	private boolean plain;
 	private char style;
@@ -28,24 +29,39 @@ public class ScalarToken extends Token {
 
 	public ScalarToken (final String value, final boolean plain, final char style) {
 		super(TokenType.SCALAR);
+		this.chars = value;
 		this.value = value;
 		this.plain = plain;
 		this.style = style;
 	}
 
+	/** @param chars The characters of the value. The String is not created until {@link #getValue()} is called. */
+	public ScalarToken (final CharSequence chars, final boolean plain, final char style) {
+		super(TokenType.SCALAR);
+		this.chars = chars;
+		this.plain = plain;
+		this.style = style;
+	}
+
 	public boolean getPlain () {
 		return this.plain;
 	}
 
 	public String getValue () {
+		if (value == null && chars != null) value = chars.toString();
 		return this.value;
 	}
 
+	/** Returns the characters of the value without creating a String. */
+	public CharSequence getChars () {
+		return this.chars;
+	}
+
 	public char getStyle () {
 		return this.style;
 	}
 
 	public String toString () {
-		return "<" + type + " value='" + value + "' plain='" + plain + "' style='" + (style == 0 ? "" : style) + "'>";
+		return "<" + type + " value='" + getValue() + "' plain='" + plain + "' style='" + (style == 0 ? "" : style) + "'>";
 	}
 }
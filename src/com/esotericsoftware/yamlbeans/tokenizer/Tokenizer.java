@@ -16,74 +16,90 @@
 
 package com.esotericsoftware.yamlbeans.tokenizer;
 
-import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
 import java.io.StringReader;
-import java.util.HashMap;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /** Interprets a YAML document as a stream of tokens.
  * @author <a href="mailto:misc@n4te.com">Nathan Sweet</a>
  * @author <a href="mailto:ola.bini@ki.se">Ola Bini</a> */
 public class Tokenizer {
-	private final static String LINEBR = "\n\u0085\u2028\u2029";
-	private final static String NULL_BL_LINEBR = "\0 \r\n\u0085";
-	private final static String NULL_BL_T_LINEBR = "\0 \t\r\n\u0085";
-	private final static String NULL_OR_OTHER = NULL_BL_T_LINEBR;
-	private final static String NULL_OR_LINEBR = "\0\r\n\u0085";
-	private final static String FULL_LINEBR = "\r\n\u0085";
-	private final static String BLANK_OR_LINEBR = " \r\n\u0085";
-	private final static String S4 = "\0 \t\r\n\u0028[]{}";
-	private final static String ALPHA = "abcdefghijklmnopqrstuvwxyz0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ-_";
-	private final static String STRANGE_CHAR = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789-#;/?:@&=+$,_.!~*'()[]";
-	private final static String RN = "\r\n";
-	private final static String BLANK_T = " \t";
-	private final static String SPACES_AND_STUFF = "'\"\\\0 \t\r\n\u0085";
-	private final static String DOUBLE_ESC = "\"\\";
-	private final static String NON_ALPHA_OR_NUM = "\0 \t\r\n\u0085?:,]}%@`";
-	private final static Pattern NON_PRINTABLE = Pattern.compile("[^\u0009\n\r\u0020-\u007E\u0085\u00A0-\u00FF]");
-	private final static Pattern NOT_HEXA = Pattern.compile("[^0-9A-Fa-f]");
-	private final static Pattern NON_ALPHA = Pattern.compile("[^-0-9A-Za-z_]");
-	private final static Pattern R_FLOWZERO = Pattern.compile("[\0 \t\r\n\u0085]|(:[\0 \t\r\n\u0085])");
-	private final static Pattern R_FLOWNONZERO = Pattern.compile("[\0 \t\r\n\u0085\\[\\]{},:?]");
-	private final static Pattern END_OR_START = Pattern.compile("^(---|\\.\\.\\.)[\0 \t\r\n\u0085]$");
-	private final static Pattern ENDING = Pattern.compile("^---[\0 \t\r\n\u0085]$");
-	private final static Pattern START = Pattern.compile("^\\.\\.\\.[\0 \t\r\n\u0085]$");
-	private final static Pattern BEG = Pattern
-		.compile("^([^\0 \t\r\n\u0085\\-?:,\\[\\]{}#&*!|>'\"%@]|([\\-?:][^\0 \t\r\n\u0085]))");
-
-	private final static Map<Character, String> ESCAPE_REPLACEMENTS = new HashMap();
-	private final static Map<Character, Integer> ESCAPE_CODES = new HashMap();
+	static public final int DEFAULT_BUFFER_SIZE = 1024;
+
+	private final static int[] CHAR_CLASSES = new int[128];
+	private static int nextLineClasses;
+
+	private final static int NULL_BL_LINEBR = charClass(1, "\0 \r\n\u0085");
+	private final static int NULL_BL_T_LINEBR = charClass(2, "\0 \t\r\n\u0085");
+	private final static int NULL_OR_OTHER = NULL_BL_T_LINEBR;
+	private final static int NULL_OR_LINEBR = charClass(3, "\0\r\n\u0085");
+	private final static int FULL_LINEBR = charClass(4, "\r\n\u0085");
+	private final static int BLANK_OR_LINEBR = charClass(5, " \r\n\u0085");
+	private final static int S4 = charClass(6, "\0 \t\r\n\u0028[]{}");
+	private final static int ALPHA = charClass(7, "abcdefghijklmnopqrstuvwxyz0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ-_");
+	private final static int STRANGE_CHAR = charClass(8,
+		"abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789-#;/?:@&=+$,_.!~*'()[]");
+	private final static int BLANK_T = charClass(9, " \t");
+	private final static int SPACES_AND_STUFF = charClass(10, "'\"\\\0 \t\r\n\u0085");
+	private final static int DOUBLE_ESC = charClass(11, "\"\\");
+	private final static int NON_ALPHA_OR_NUM = charClass(12, "\0 \t\r\n\u0085?:,]}%@`");
+	private final static int NULL_BL_T_LINEBR_FLOW = charClass(13, "\0 \t\r\n\u0085[]{},:?");
+	private final static int NOT_PLAIN_START = charClass(14, "\0 \t\r\n\u0085-?:,[]{}#&*!|>'\"%@");
+
+	// Indexed by the character after the backslash, -1 or 0 when it is not that kind of escape.
+	private final static int[] ESCAPE_REPLACEMENTS = new int[128];
+	private final static int[] ESCAPE_CODES = new int[128];
 
 	static {
-		ESCAPE_REPLACEMENTS.put('0', "\0");
-		ESCAPE_REPLACEMENTS.put('a', "\u0007");
-		ESCAPE_REPLACEMENTS.put('b', "\u0008");
-		ESCAPE_REPLACEMENTS.put('t', "\u0009");
-		ESCAPE_REPLACEMENTS.put('\t', "\u0009");
-		ESCAPE_REPLACEMENTS.put('n', "\n");
-		ESCAPE_REPLACEMENTS.put('v', "\u000B");
-		ESCAPE_REPLACEMENTS.put('f', "\u000C");
-		ESCAPE_REPLACEMENTS.put('r', "\r");
-		ESCAPE_REPLACEMENTS.put('e', "\u001B");
-		ESCAPE_REPLACEMENTS.put(' ', "\u0020");
-		ESCAPE_REPLACEMENTS.put('"', "\"");
-		ESCAPE_REPLACEMENTS.put('\\', "\\");
-		ESCAPE_REPLACEMENTS.put('N', "\u0085");
-		ESCAPE_REPLACEMENTS.put('_', "\u00A0");
-		ESCAPE_REPLACEMENTS.put('L', "\u2028");
-		ESCAPE_REPLACEMENTS.put('P', "\u2029");
-
-		ESCAPE_CODES.put('x', 2);
-		ESCAPE_CODES.put('u', 4);
-		ESCAPE_CODES.put('U', 8);
+		Arrays.fill(ESCAPE_REPLACEMENTS, -1);
+		ESCAPE_REPLACEMENTS['0'] = '\0';
+		ESCAPE_REPLACEMENTS['a'] = '\u0007';
+		ESCAPE_REPLACEMENTS['b'] = '\u0008';
+		ESCAPE_REPLACEMENTS['t'] = '\u0009';
+		ESCAPE_REPLACEMENTS['\t'] = '\u0009';
+		ESCAPE_REPLACEMENTS['n'] = '\n';
+		ESCAPE_REPLACEMENTS['v'] = '\u000B';
+		ESCAPE_REPLACEMENTS['f'] = '\u000C';
+		ESCAPE_REPLACEMENTS['r'] = '\r';
+		ESCAPE_REPLACEMENTS['e'] = '\u001B';
+		ESCAPE_REPLACEMENTS[' '] = '\u0020';
+		ESCAPE_REPLACEMENTS['"'] = '"';
+		ESCAPE_REPLACEMENTS['\\'] = '\\';
+		ESCAPE_REPLACEMENTS['N'] = '\u0085';
+		ESCAPE_REPLACEMENTS['_'] = '\u00A0';
+		ESCAPE_REPLACEMENTS['L'] = '\u2028';
+		ESCAPE_REPLACEMENTS['P'] = '\u2029';
+
+		ESCAPE_CODES['x'] = 2;
+		ESCAPE_CODES['u'] = 4;
+		ESCAPE_CODES['U'] = 8;
+	}
+
+	/** Adds the characters to the character class with the specified bit and returns the class' flag. */
+	static private int charClass (int bit, String chars) {
+		int flag = 1 << bit;
+		for (int i = 0, n = chars.length(); i < n; i++) {
+			char ch = chars.charAt(i);
+			if (ch < 128)
+				CHAR_CLASSES[ch] |= flag;
+			else if (ch == '\u0085')
+				nextLineClasses |= flag;
+			else
+				throw new IllegalArgumentException("Unsupported character class character: " + (int)ch);
+		}
+		return flag;
+	}
+
+	/** Returns true if the character is in any of the specified character classes. */
+	static private boolean is (char ch, int charClass) {
+		if (ch < 128) return (CHAR_CLASSES[ch] & charClass) != 0;
+		return ch == '\u0085' && (nextLineClasses & charClass) != 0;
 	}
 
 	private boolean done = false;
@@ -95,18 +111,39 @@ public class Tokenizer {
 	private int lineNumber = 0;
 	private int column = 0;
 	private int pointer = 0;
-	private final StringBuilder buffer;
-	private final Reader reader;
-	private final List<Token> tokens = new LinkedList();
-	private final List<Integer> indents = new LinkedList();
-	private final Map<Integer, SimpleKey> possibleSimpleKeys = new HashMap();
+	private final int bufferSize;
+	private char[] buffer;
+	private int bufferLength;
+	private Reader reader;
+	private Token[] tokens = new Token[16];
+	private int tokensHead, tokensSize;
+	private int[] indents = new int[16];
+	private int indentsSize;
+	// Indexed by simpleKeyIndex(flowLevel), -1 when there is no possible simple key at that level.
+	private int[] simpleKeyTokenNumbers = {-1, -1, -1, -1, -1, -1, -1, -1};
+	private int[] simpleKeyColumns = new int[8];
 	private boolean docStart = false;
+	private boolean scalarSlices;
+	private int mark = -1;
+	private boolean lazyPosition;
+	/** The index in the window where the current line starts, negative once the start has been discarded. Only used for the
+	 * lazy position. */
+	private int lineStart;
+	private final StringBuilder scalarBuilder = new StringBuilder();
+	private boolean bufferShared;
 
 	public Tokenizer (Reader reader) {
+		this(reader, DEFAULT_BUFFER_SIZE);
+	}
+
+	/** @param bufferSize The number of characters read from the reader at a time. The input window grows beyond this size only
+	 *           when a single lookahead requires it. */
+	public Tokenizer (Reader reader, int bufferSize) {
 		if (reader == null) throw new IllegalArgumentException("reader cannot be null.");
-		if (!(reader instanceof BufferedReader)) reader = new BufferedReader(reader);
+		if (bufferSize < 1) throw new IllegalArgumentException("bufferSize must be greater than 0: " + bufferSize);
 		this.reader = reader;
-		buffer = new StringBuilder();
+		this.bufferSize = bufferSize;
+		buffer = new char[bufferSize];
 		eof = false;
 		fetchStreamStart();
 	}
@@ -115,10 +152,97 @@ public class Tokenizer {
 		this(new StringReader(yaml));
 	}
 
+	/** Reads UTF-8 from the stream, decoding the bytes directly into the input window. */
+	public Tokenizer (InputStream input) {
+		this(new Utf8Reader(input), DEFAULT_BUFFER_SIZE);
+	}
+
+	/** Reads UTF-8 from the stream, decoding the bytes directly into the input window. */
+	public Tokenizer (InputStream input, int bufferSize) {
+		this(new Utf8Reader(input), bufferSize);
+	}
+
+	/** Reads UTF-8 from the bytes, decoding them directly into the input window. The bytes must not be modified while the
+	 * tokenizer is in use. */
+	public Tokenizer (byte[] yaml) {
+		this(new Utf8Reader(yaml), DEFAULT_BUFFER_SIZE);
+	}
+
+	/** Reads UTF-8 from the bytes, decoding them directly into the input window. The bytes must not be modified while the
+	 * tokenizer is in use. */
+	public Tokenizer (byte[] yaml, int bufferSize) {
+		this(new Utf8Reader(yaml), bufferSize);
+	}
+
+	/** Reads UTF-8 from the buffer's position to its limit, such as a memory mapped file. The buffer's position is not changed. */
+	public Tokenizer (ByteBuffer yaml, int bufferSize) {
+		this(new Utf8Reader(yaml), bufferSize);
+	}
+
+	/** Reads UTF-8 from the channel's position to the end of the file, memory mapping the file rather than reading it all into the heap.
+	 * The channel is closed when the tokenizer is closed. */
+	public Tokenizer (FileChannel channel, int bufferSize) throws IOException {
+		this(new Utf8Reader(channel), bufferSize);
+	}
+
+	/** Discards all tokens and state and begins tokenizing the specified reader, so one tokenizer can be reused for many
+	 * streams. Settings are kept. The input window is kept unless it has been sliced or has grown beyond the configured buffer
+	 * size, so a reused tokenizer does not hold on to the largest window it has needed. The previous reader is not closed. */
+	public void reset (Reader reader) {
+		if (reader == null) throw new IllegalArgumentException("reader cannot be null.");
+		this.reader = reader;
+		done = false;
+		flowLevel = 0;
+		tokensTaken = 0;
+		indent = -1;
+		allowSimpleKey = true;
+		eof = false;
+		lineNumber = 0;
+		column = 0;
+		pointer = 0;
+		bufferLength = 0;
+		if (bufferShared || buffer.length != bufferSize) {
+			buffer = new char[bufferSize];
+			bufferShared = false;
+		}
+		Arrays.fill(tokens, null);
+		tokensHead = 0;
+		tokensSize = 0;
+		indentsSize = 0;
+		Arrays.fill(simpleKeyTokenNumbers, -1);
+		docStart = false;
+		mark = -1;
+		lineStart = 0;
+		fetchStreamStart();
+	}
+
+	/** If true, plain scalars that are contiguous in the input and quoted scalars without escapes or line breaks are returned as
+	 * {@link CharSlice}s of the input window, and the String is only created when {@link ScalarToken#getValue()} is called. This
+	 * avoids allocating Strings for scalars that are converted or skipped, but each window that has been sliced is retained for as
+	 * long as its slices are referenced. When set to false, the Strings are created for scalars that have already been scanned
+	 * ahead, so no more slices are returned. Default is false. */
+	public void setScalarSlices (boolean scalarSlices) {
+		this.scalarSlices = scalarSlices;
+		if (!scalarSlices) {
+			int mask = tokens.length - 1;
+			for (int i = 0; i < tokensSize; i++) {
+				Token token = tokens[(tokensHead + i) & mask];
+				if (!(token instanceof ScalarToken)) continue;
+				ScalarToken scalar = (ScalarToken)token;
+				if (scalar.getChars() instanceof CharSlice)
+					tokens[(tokensHead + i) & mask] = new ScalarToken(scalar.getValue(), scalar.getPlain(), scalar.getStyle());
+			}
+		}
+	}
+
+	public boolean getScalarSlices () {
+		return scalarSlices;
+	}
+
 	public Token peekNextToken () throws TokenizerException {
 		while (needMoreTokens())
 			fetchMoreTokens();
-		return tokens.isEmpty() ? null : tokens.get(0);
+		return tokensSize == 0 ? null : tokens[tokensHead];
 	}
 
 	public TokenType peekNextTokenType () throws TokenizerException {
@@ -130,9 +254,12 @@ public class Tokenizer {
 	public Token getNextToken () throws TokenizerException {
 		while (needMoreTokens())
 			fetchMoreTokens();
-		if (!tokens.isEmpty()) {
+		if (tokensSize != 0) {
 			tokensTaken++;
-			Token token = tokens.remove(0);
+			Token token = tokens[tokensHead];
+			tokens[tokensHead] = null;
+			tokensHead = (tokensHead + 1) & (tokens.length - 1);
+			tokensSize--;
 			return token;
 		}
 		return null;
@@ -154,11 +281,23 @@ public class Tokenizer {
 		};
 	}
 
+	/** If true, the line number and column are not updated as each character is consumed. Instead the line number is counted
+	 * and the start of the line is recorded only when a line break is scanned, and the column is the distance from the start of
+	 * the line. The positions are the same either way. Default is false. */
+	public void setLazyPosition (boolean lazyPosition) {
+		if (this.lazyPosition)
+			column = pointer - lineStart;
+		else
+			lineStart = pointer - column;
+		this.lazyPosition = lazyPosition;
+	}
+
 	public int getLineNumber () {
 		return lineNumber;
 	}
 
 	public int getColumn () {
+		if (lazyPosition) return pointer - lineStart;
 		return column;
 	}
 
@@ -167,45 +306,37 @@ public class Tokenizer {
 	}
 
 	private char peek () {
-		if (pointer + 1 > buffer.length()) update(1);
-		return buffer.charAt(pointer);
+		if (pointer >= bufferLength) update(1);
+		return buffer[pointer];
 	}
 
 	private char peek (int index) {
-		if (pointer + index + 1 > buffer.length()) update(index + 1);
-		return buffer.charAt(pointer + index);
+		if (pointer + index >= bufferLength) update(index + 1);
+		return buffer[pointer + index];
 	}
 
 	private String prefix (int length) {
-		if (pointer + length >= buffer.length()) update(length);
-		if (pointer + length > buffer.length()) return buffer.substring(pointer, buffer.length());
-		return buffer.substring(pointer, pointer + length);
+		if (pointer + length > bufferLength) update(length);
+		return new String(buffer, pointer, length);
 	}
 
 	private String prefixForward (int length) {
-		if (pointer + length + 1 >= buffer.length()) update(length + 1);
-		String buff = null;
-		if (pointer + length > buffer.length())
-			buff = buffer.substring(pointer, buffer.length());
-		else
-			buff = buffer.substring(pointer, pointer + length);
-		char ch = 0;
-		for (int i = 0, j = buff.length(); i < j; i++) {
-			ch = buff.charAt(i);
-			pointer++;
-			if (LINEBR.indexOf(ch) != -1 || ch == '\r' && buff.charAt(i + 1) != '\n') {
-				column = 0;
-				lineNumber++;
-			} else if (ch != '\uFEFF') column++;
-		}
-		return buff;
+		if (pointer + length >= bufferLength) update(length + 1);
+		String value = new String(buffer, pointer, length);
+		forward(length);
+		return value;
 	}
 
+	/** Consumes a character. The line breaks are the characters {@link #scanLineBreak()} consumes, U+2028 and U+2029 are not
+	 * line breaks to this tokenizer so are counted in the column like any other character. */
 	private void forward () {
-		if (pointer + 2 >= buffer.length()) update(2);
-		char ch1 = buffer.charAt(pointer);
-		pointer++;
-		if (ch1 == '\n' || ch1 == '\u0085' || ch1 == '\r' && buffer.charAt(pointer) != '\n') {
+		if (pointer + 2 > bufferLength) update(2);
+		if (lazyPosition) {
+			pointer++;
+			return;
+		}
+		char ch = buffer[pointer++];
+		if (ch == '\n' || ch == '\u0085' || ch == '\r' && buffer[pointer] != '\n') {
 			column = 0;
 			lineNumber++;
 		} else
@@ -213,54 +344,71 @@ public class Tokenizer {
 	}
 
 	private void forward (int length) {
-		if (pointer + length + 1 >= buffer.length()) update(length + 1);
-		char ch = 0;
+		if (pointer + length >= bufferLength) update(length + 1);
+		if (lazyPosition) {
+			pointer += length;
+			return;
+		}
+		char[] buffer = this.buffer;
 		for (int i = 0; i < length; i++) {
-			ch = buffer.charAt(pointer);
-			pointer++;
-			if (LINEBR.indexOf(ch) != -1 || ch == '\r' && buffer.charAt(pointer) != '\n') {
+			char ch = buffer[pointer++];
+			if (ch == '\n' || ch == '\u0085' || ch == '\r' && buffer[pointer] != '\n') {
 				column = 0;
 				lineNumber++;
-			} else if (ch != '\uFEFF') column++;
+			} else
+				column++;
 		}
 	}
 
+	/** Ensures at least length characters are available in the window starting at the pointer. The unread characters are moved
+	 * to the start of the window only when the end of the window is reached, and the window grows only when length is larger
+	 * than it. Characters from the mark are kept as well. A window that has been sliced is never overwritten, a new one is used.
+	 * At the end of the stream the window is padded with '\0'. */
 	private void update (int length) {
-		buffer.delete(0, pointer);
-		pointer = 0;
-		while (buffer.length() < length) {
-			String rawData = "";
-			if (!eof) {
-				char[] data = new char[1024];
-				int converted = -2;
-				try {
-					converted = reader.read(data);
-				} catch (IOException ioe) {
-					throw new TokenizerException("Error reading from stream.", ioe);
-				}
-				if (converted == -1)
-					eof = true;
-				else
-					rawData = String.valueOf(data, 0, converted);
-			}
-			buffer.append(rawData);
+		if (pointer + length > buffer.length) {
+			int start = mark == -1 ? pointer : mark;
+			int remaining = bufferLength - start, required = pointer - start + length;
+			char[] newBuffer = buffer;
+			if (required > buffer.length)
+				newBuffer = new char[Math.max(required, buffer.length << 1)];
+			else if (bufferShared)
+				newBuffer = new char[Math.max(required, bufferSize)];
+			System.arraycopy(buffer, start, newBuffer, 0, remaining);
+			buffer = newBuffer;
+			bufferShared = false;
+			bufferLength = remaining;
+			pointer -= start;
+			if (mark != -1) mark -= start;
+			lineStart -= start;
+		}
+		while (bufferLength - pointer < length) {
 			if (eof) {
-				buffer.append('\0');
-				break;
+				buffer[bufferLength++] = '\0';
+				continue;
+			}
+			int count;
+			try {
+				count = reader.read(buffer, bufferLength, buffer.length - bufferLength);
+			} catch (IOException ioe) {
+				throw new TokenizerException("Error reading from stream.", ioe);
 			}
+			if (count == -1)
+				eof = true;
+			else
+				bufferLength += count;
 		}
 	}
 
 	private boolean needMoreTokens () {
 		if (done) return false;
-		return tokens.isEmpty() || nextPossibleSimpleKey() == tokensTaken;
+		return tokensSize == 0 || nextPossibleSimpleKey() == tokensTaken;
 	}
 
 	private Token fetchMoreTokens () {
 		scanToNextToken();
-		unwindIndent(column);
+		unwindIndent(getColumn());
 		char ch = peek();
-		boolean colz = column == 0;
+		boolean colz = getColumn() == 0;
 		switch (ch) {
 		case '\0':
 			return fetchStreamEnd();
@@ -269,21 +417,21 @@ public class Tokenizer {
 		case '"':
 			return fetchDouble();
 		case '?':
-			if (flowLevel != 0 || NULL_OR_OTHER.indexOf(peek(1)) != -1) return fetchKey();
+			if (flowLevel != 0 || is(peek(1), NULL_OR_OTHER)) return fetchKey();
 			break;
 		case ':':
-			if (flowLevel != 0 || NULL_OR_OTHER.indexOf(peek(1)) != -1) return fetchValue();
+			if (flowLevel != 0 || is(peek(1), NULL_OR_OTHER)) return fetchValue();
 			break;
 		case '%':
 			if (colz) return fetchDirective();
 			break;
 		case '-':
-			if ((colz || docStart) && ENDING.matcher(prefix(4)).matches())
+			if ((colz || docStart) && isDocumentIndicator('-'))
 				return fetchDocumentStart();
-			else if (NULL_OR_OTHER.indexOf(peek(1)) != -1) return fetchBlockEntry();
+			else if (is(peek(1), NULL_OR_OTHER)) return fetchBlockEntry();
 			break;
 		case '.':
-			if (colz && START.matcher(prefix(4)).matches()) return fetchDocumentEnd();
+			if (colz && isDocumentIndicator('.')) return fetchDocumentEnd();
 			break;
 		case '[':
 			return fetchFlowSequenceStart();
@@ -308,36 +456,84 @@ public class Tokenizer {
 			if (flowLevel == 0) return fetchFolded();
 			break;
 		}
-		if (BEG.matcher(prefix(2)).find()) return fetchPlain();
+		if (!is(ch, NOT_PLAIN_START) || (ch == '-' || ch == '?' || ch == ':') && !is(peek(1), NULL_BL_T_LINEBR))
+			return fetchPlain();
 		if (ch == '\t') throw new TokenizerException("Tabs cannot be used for indentation.");
 		throw new TokenizerException(
 			"While scanning for the next token, a character that cannot begin a token was found: " + ch(ch));
 	}
 
+	/** Adds the token to the end of the queue. */
+	private void addToken (Token token) {
+		if (tokensSize == tokens.length) growTokens();
+		tokens[(tokensHead + tokensSize) & (tokens.length - 1)] = token;
+		tokensSize++;
+	}
+
+	/** Inserts the token into the queue, shifting the tokens at and after the index toward the end. */
+	private void addToken (int index, Token token) {
+		if (tokensSize == tokens.length) growTokens();
+		int mask = tokens.length - 1;
+		for (int i = tokensSize; i > index; i--)
+			tokens[(tokensHead + i) & mask] = tokens[(tokensHead + i - 1) & mask];
+		tokens[(tokensHead + index) & mask] = token;
+		tokensSize++;
+	}
+
+	private void growTokens () {
+		Token[] newTokens = new Token[tokens.length << 1];
+		for (int i = 0; i < tokensSize; i++)
+			newTokens[i] = tokens[(tokensHead + i) & (tokens.length - 1)];
+		tokens = newTokens;
+		tokensHead = 0;
+	}
+
 	private int nextPossibleSimpleKey () {
-		for (Iterator iter = possibleSimpleKeys.values().iterator(); iter.hasNext();) {
-			SimpleKey key = (SimpleKey)iter.next();
-			if (key.tokenNumber > 0) return key.tokenNumber;
-		}
+		int[] simpleKeyTokenNumbers = this.simpleKeyTokenNumbers;
+		for (int i = 0, n = simpleKeyTokenNumbers.length; i < n; i++)
+			if (simpleKeyTokenNumbers[i] > 0) return simpleKeyTokenNumbers[i];
 		return -1;
 	}
 
+	/** Maps a flow level to an index, interleaving the negative levels an unbalanced flow collection end can produce. */
+	static private int simpleKeyIndex (int flowLevel) {
+		return flowLevel >= 0 ? flowLevel << 1 : (-flowLevel << 1) - 1;
+	}
+
 	private void savePossibleSimpleKey () {
-		if (allowSimpleKey) possibleSimpleKeys.put(flowLevel, new SimpleKey(tokensTaken + tokens.size(), column));
+		if (!allowSimpleKey) return;
+		int index = simpleKeyIndex(flowLevel);
+		if (index >= simpleKeyTokenNumbers.length) {
+			int oldLength = simpleKeyTokenNumbers.length, newLength = Math.max(index + 1, oldLength << 1);
+			int[] newTokenNumbers = new int[newLength];
+			System.arraycopy(simpleKeyTokenNumbers, 0, newTokenNumbers, 0, oldLength);
+			Arrays.fill(newTokenNumbers, oldLength, newLength, -1);
+			simpleKeyTokenNumbers = newTokenNumbers;
+			int[] newColumns = new int[newLength];
+			System.arraycopy(simpleKeyColumns, 0, newColumns, 0, oldLength);
+			simpleKeyColumns = newColumns;
+		}
+		simpleKeyTokenNumbers[index] = tokensTaken + tokensSize;
+		simpleKeyColumns[index] = getColumn();
 	}
 
 	private void unwindIndent (int col) {
 		if (flowLevel != 0) return;
 
 		while (indent > col) {
-			indent = indents.remove(0);
-			tokens.add(Token.BLOCK_END);
+			indent = indents[--indentsSize];
+			addToken(Token.BLOCK_END);
 		}
 	}
 
 	private boolean addIndent (int col) {
 		if (indent < col) {
-			indents.add(0, indent);
+			if (indentsSize == indents.length) {
+				int[] newIndents = new int[indents.length << 1];
+				System.arraycopy(indents, 0, newIndents, 0, indentsSize);
+				indents = newIndents;
+			}
+			indents[indentsSize++] = indent;
 			indent = col;
 			return true;
 		}
@@ -346,15 +542,15 @@ public class Tokenizer {
 
 	private Token fetchStreamStart () {
 		docStart = true;
-		tokens.add(Token.STREAM_START);
+		addToken(Token.STREAM_START);
 		return Token.STREAM_START;
 	}
 
 	private Token fetchStreamEnd () {
 		unwindIndent(-1);
 		allowSimpleKey = false;
-		possibleSimpleKeys.clear();
-		tokens.add(Token.STREAM_END);
+		Arrays.fill(simpleKeyTokenNumbers, -1);
+		addToken(Token.STREAM_END);
 		done = true;
 		return Token.STREAM_END;
 	}
@@ -363,7 +559,7 @@ public class Tokenizer {
 		unwindIndent(-1);
 		allowSimpleKey = false;
 		Token tok = scanDirective();
-		tokens.add(tok);
+		addToken(tok);
 		return tok;
 	}
 
@@ -380,7 +576,7 @@ public class Tokenizer {
 		unwindIndent(-1);
 		allowSimpleKey = false;
 		forward(3);
-		tokens.add(tok);
+		addToken(tok);
 		return tok;
 	}
 
@@ -397,7 +593,7 @@ public class Tokenizer {
 		flowLevel++;
 		allowSimpleKey = true;
 		forward(1);
-		tokens.add(tok);
+		addToken(tok);
 		return tok;
 	}
 
@@ -413,51 +609,53 @@ public class Tokenizer {
 		flowLevel--;
 		allowSimpleKey = false;
 		forward(1);
-		tokens.add(tok);
+		addToken(tok);
 		return tok;
 	}
 
 	private Token fetchFlowEntry () {
 		allowSimpleKey = true;
 		forward(1);
-		tokens.add(Token.FLOW_ENTRY);
+		addToken(Token.FLOW_ENTRY);
 		return Token.FLOW_ENTRY;
 	}
 
 	private Token fetchBlockEntry () {
 		if (flowLevel == 0) {
 			if (!allowSimpleKey) throw new TokenizerException("Found a sequence entry where it is not allowed.");
-			if (addIndent(column)) tokens.add(Token.BLOCK_SEQUENCE_START);
+			if (addIndent(getColumn())) addToken(Token.BLOCK_SEQUENCE_START);
 		}
 		allowSimpleKey = true;
 		forward();
-		tokens.add(Token.BLOCK_ENTRY);
+		addToken(Token.BLOCK_ENTRY);
 		return Token.BLOCK_ENTRY;
 	}
 
 	private Token fetchKey () {
 		if (flowLevel == 0) {
 			if (!allowSimpleKey) throw new TokenizerException("Found a mapping key where it is not allowed.");
-			if (addIndent(column)) tokens.add(Token.BLOCK_MAPPING_START);
+			if (addIndent(getColumn())) addToken(Token.BLOCK_MAPPING_START);
 		}
 		allowSimpleKey = flowLevel == 0;
 		forward();
-		tokens.add(Token.KEY);
+		addToken(Token.KEY);
 		return Token.KEY;
 	}
 
 	private Token fetchValue () {
-		SimpleKey key = possibleSimpleKeys.get(flowLevel);
-		if (null == key) {
+		int index = simpleKeyIndex(flowLevel);
+		int keyTokenNumber = index < simpleKeyTokenNumbers.length ? simpleKeyTokenNumbers[index] : -1;
+		if (keyTokenNumber == -1) {
 			if (flowLevel == 0 && !allowSimpleKey) throw new TokenizerException("Found a mapping value where it is not allowed.");
 		} else {
-			possibleSimpleKeys.remove(flowLevel);
-			tokens.add(key.tokenNumber - tokensTaken, Token.KEY);
-			if (flowLevel == 0 && addIndent(key.column)) tokens.add(key.tokenNumber - tokensTaken, Token.BLOCK_MAPPING_START);
+			simpleKeyTokenNumbers[index] = -1;
+			addToken(keyTokenNumber - tokensTaken, Token.KEY);
+			if (flowLevel == 0 && addIndent(simpleKeyColumns[index]))
+				addToken(keyTokenNumber - tokensTaken, Token.BLOCK_MAPPING_START);
 			allowSimpleKey = false;
 		}
 		forward();
-		tokens.add(Token.VALUE);
+		addToken(Token.VALUE);
 		return Token.VALUE;
 	}
 
@@ -465,7 +663,7 @@ public class Tokenizer {
 		savePossibleSimpleKey();
 		allowSimpleKey = false;
 		Token tok = scanAnchor(new AliasToken());
-		tokens.add(tok);
+		addToken(tok);
 		return tok;
 	}
 
@@ -473,7 +671,7 @@ public class Tokenizer {
 		savePossibleSimpleKey();
 		allowSimpleKey = false;
 		Token tok = scanAnchor(new AnchorToken());
-		tokens.add(tok);
+		addToken(tok);
 		return tok;
 	}
 
@@ -481,7 +679,7 @@ public class Tokenizer {
 		savePossibleSimpleKey();
 		allowSimpleKey = false;
 		Token tok = scanTag();
-		tokens.add(tok);
+		addToken(tok);
 		return tok;
 	}
 
@@ -496,7 +694,7 @@ public class Tokenizer {
 	private Token fetchBlockScalar (char style) {
 		allowSimpleKey = true;
 		Token tok = scanBlockScalar(style);
-		tokens.add(tok);
+		addToken(tok);
 		return tok;
 	}
 
@@ -512,7 +710,7 @@ public class Tokenizer {
 		savePossibleSimpleKey();
 		allowSimpleKey = false;
 		Token tok = scanFlowScalar(style);
-		tokens.add(tok);
+		addToken(tok);
 		return tok;
 	}
 
@@ -520,7 +718,7 @@ public class Tokenizer {
 		savePossibleSimpleKey();
 		allowSimpleKey = false;
 		Token tok = scanPlain();
-		tokens.add(tok);
+		addToken(tok);
 		return tok;
 	}
 
@@ -528,7 +726,7 @@ public class Tokenizer {
 		for (;;) {
 			while (peek() == ' ')
 				forward();
-			if (peek() == '#') while (NULL_OR_LINEBR.indexOf(peek()) == -1)
+			if (peek() == '#') while (!is(peek(), NULL_OR_LINEBR))
 				forward();
 			if (scanLineBreak().length() != 0) {
 				if (flowLevel == 0) allowSimpleKey = true;
@@ -549,7 +747,7 @@ public class Tokenizer {
 			StringBuilder buffer = new StringBuilder();
 			while (true) {
 				char ch = peek();
-				if (NULL_OR_LINEBR.indexOf(ch) != -1) break;
+				if (is(ch, NULL_OR_LINEBR)) break;
 				buffer.append(ch);
 				forward();
 			}
@@ -563,7 +761,7 @@ public class Tokenizer {
 		int length = 0;
 		char ch = peek(length);
 		boolean zlen = true;
-		while (ALPHA.indexOf(ch) != -1) {
+		while (is(ch, ALPHA)) {
 			zlen = false;
 			length++;
 			ch = peek(length);
@@ -572,7 +770,7 @@ public class Tokenizer {
 			"While scanning for a directive name, expected an alpha or numeric character but found: " + ch(ch));
 		String value = prefixForward(length);
 		// forward(length);
-		if (NULL_BL_LINEBR.indexOf(peek()) == -1) throw new TokenizerException(
+		if (!is(peek(), NULL_BL_LINEBR)) throw new TokenizerException(
 			"While scanning for a directive name, expected an alpha or numeric character but found: " + ch(ch));
 		return value;
 	}
@@ -585,7 +783,7 @@ public class Tokenizer {
 			throw new TokenizerException("While scanning for a directive value, expected a digit or '.' but found: " + ch(peek()));
 		forward();
 		String minor = scanYamlDirectiveNumber();
-		if (NULL_BL_LINEBR.indexOf(peek()) == -1)
+		if (!is(peek(), NULL_BL_LINEBR))
 			throw new TokenizerException("While scanning for a directive value, expected a digit or '.' but found: " + ch(peek()));
 		return major + "." + minor;
 	}
@@ -621,7 +819,7 @@ public class Tokenizer {
 
 	private String scanTagDirectivePrefix () {
 		String value = scanTagUri("directive");
-		if (NULL_BL_LINEBR.indexOf(peek()) == -1)
+		if (!is(peek(), NULL_BL_LINEBR))
 			throw new TokenizerException("While scanning for a directive tag prefix, expected ' ' but found: " + ch(peek()));
 		return value;
 	}
@@ -629,10 +827,10 @@ public class Tokenizer {
 	private String scanDirectiveIgnoredLine () {
 		while (peek() == ' ')
 			forward();
-		if (peek() == '"') while (NULL_OR_LINEBR.indexOf(peek()) == -1)
+		if (peek() == '"') while (!is(peek(), NULL_OR_LINEBR))
 			forward();
 		char ch = peek();
-		if (NULL_OR_LINEBR.indexOf(ch) == -1)
+		if (!is(ch, NULL_OR_LINEBR))
 			throw new TokenizerException("While scanning a directive, expected a comment or line break but found: " + ch(peek()));
 		return scanLineBreak();
 	}
@@ -642,19 +840,13 @@ public class Tokenizer {
 		String name = indicator == '*' ? "alias" : "anchor";
 		forward();
 		int length = 0;
-		int chunk_size = 16;
-		Matcher m = null;
-		for (;;) {
-			String chunk = prefix(chunk_size);
-			if ((m = NON_ALPHA.matcher(chunk)).find()) break;
-			chunk_size += 16;
-		}
-		length = m.start();
+		while (is(peek(length), ALPHA))
+			length++;
 		if (length == 0)
 			throw new TokenizerException("While scanning an " + name + ", a non-alpha, non-numeric character was found.");
 		String value = prefixForward(length);
 		// forward(length);
-		if (NON_ALPHA_OR_NUM.indexOf(peek()) == -1) throw new TokenizerException(
+		if (!is(peek(), NON_ALPHA_OR_NUM)) throw new TokenizerException(
 			"While scanning an " + name + ", expected an alpha or numeric character but found: " + ch(peek()));
 		if (tok instanceof AnchorToken)
 			((AnchorToken)tok).setInstanceName(value);
@@ -672,13 +864,13 @@ public class Tokenizer {
 			suffix = scanTagUri("tag");
 			if (peek() != '>') throw new TokenizerException("While scanning a tag, expected '>' but found: " + ch(peek()));
 			forward();
-		} else if (NULL_BL_T_LINEBR.indexOf(ch) != -1) {
+		} else if (is(ch, NULL_BL_T_LINEBR)) {
 			suffix = "!";
 			forward();
 		} else {
 			int length = 1;
 			boolean useHandle = false;
-			while (NULL_BL_T_LINEBR.indexOf(ch) == -1) {
+			while (!is(ch, NULL_BL_T_LINEBR)) {
 				if (ch == '!') {
 					useHandle = true;
 					break;
@@ -695,7 +887,7 @@ public class Tokenizer {
 			}
 			suffix = scanTagUri("tag");
 		}
-		if (NULL_BL_LINEBR.indexOf(peek()) == -1)
+		if (!is(peek(), NULL_BL_LINEBR))
 			throw new TokenizerException("While scanning a tag, expected ' ' but found: " + ch(peek()));
 		return new TagToken(handle, suffix);
 	}
@@ -727,18 +919,18 @@ public class Tokenizer {
 		}
 
 		String lineBreak = "";
-		while (column == ind && peek() != '\0') {
+		while (getColumn() == ind && peek() != '\0') {
 			chunks.append(breaks);
-			boolean leadingNonSpace = BLANK_T.indexOf(peek()) == -1;
+			boolean leadingNonSpace = !is(peek(), BLANK_T);
 			int length = 0;
-			while (NULL_OR_LINEBR.indexOf(peek(length)) == -1)
+			while (!is(peek(length), NULL_OR_LINEBR))
 				length++;
 			chunks.append(prefixForward(length));
 			// forward(length);
 			lineBreak = scanLineBreak();
 			breaks = scanBlockScalarBreaks(ind);
-			if (column == ind && peek() != '\0') {
-				if (folded && lineBreak.equals("\n") && leadingNonSpace && BLANK_T.indexOf(peek()) == -1) {
+			if (getColumn() == ind && peek() != '\0') {
+				if (folded && lineBreak.equals("\n") && leadingNonSpace && !is(peek(), BLANK_T)) {
 					if (breaks.length() == 0) chunks.append(" ");
 				} else
 					chunks.append(lineBreak);
@@ -781,7 +973,7 @@ public class Tokenizer {
 				forward();
 			}
 		}
-		if (NULL_BL_LINEBR.indexOf(peek()) == -1) throw new TokenizerException(
+		if (!is(peek(), NULL_BL_LINEBR)) throw new TokenizerException(
 			"While scanning a block scalar, expected chomping or indentation indicators but found: " + ch(peek()));
 		return new Object[] {Integer.valueOf(chomping), increment};
 	}
@@ -789,9 +981,9 @@ public class Tokenizer {
 	private String scanBlockScalarIgnoredLine () {
 		while (peek() == ' ')
 			forward();
-		if (peek() == '#') while (NULL_OR_LINEBR.indexOf(peek()) == -1)
+		if (peek() == '#') while (!is(peek(), NULL_OR_LINEBR))
 			forward();
-		if (NULL_OR_LINEBR.indexOf(peek()) == -1)
+		if (!is(peek(), NULL_OR_LINEBR))
 			throw new TokenizerException("While scanning a block scalar, expected a comment or line break but found: " + ch(peek()));
 		return scanLineBreak();
 	}
@@ -799,23 +991,23 @@ public class Tokenizer {
 	private Object[] scanBlockScalarIndentation () {
 		StringBuilder chunks = new StringBuilder();
 		int maxIndent = 0;
-		while (BLANK_OR_LINEBR.indexOf(peek()) != -1)
+		while (is(peek(), BLANK_OR_LINEBR))
 			if (peek() != ' ')
 				chunks.append(scanLineBreak());
 			else {
 				forward();
-				if (column > maxIndent) maxIndent = column;
+				if (getColumn() > maxIndent) maxIndent = getColumn();
 			}
 		return new Object[] {chunks.toString(), maxIndent};
 	}
 
 	private String scanBlockScalarBreaks (int indent) {
 		StringBuilder chunks = new StringBuilder();
-		while (column < indent && peek() == ' ')
+		while (getColumn() < indent && peek() == ' ')
 			forward();
-		while (FULL_LINEBR.indexOf(peek()) != -1) {
+		while (is(peek(), FULL_LINEBR)) {
 			chunks.append(scanLineBreak());
-			while (column < indent && peek() == ' ')
+			while (getColumn() < indent && peek() == ' ')
 				forward();
 		}
 		return chunks.toString();
@@ -823,93 +1015,123 @@ public class Tokenizer {
 
 	private Token scanFlowScalar (char style) {
 		boolean dbl = style == '"';
-		StringBuilder chunks = new StringBuilder();
+		StringBuilder chunks = scalarBuilder;
+		chunks.setLength(0);
 		char quote = peek();
 		forward();
-		chunks.append(scanFlowScalarNonSpaces(dbl));
+		if (scalarSlices) mark = pointer;
+		scanFlowScalarNonSpaces(dbl, chunks);
 		while (peek() != quote) {
-			chunks.append(scanFlowScalarSpaces());
-			chunks.append(scanFlowScalarNonSpaces(dbl));
+			scanFlowScalarSpaces(chunks);
+			scanFlowScalarNonSpaces(dbl, chunks);
+		}
+		if (scalarSlices) {
+			int offset = mark, length = pointer - offset;
+			mark = -1;
+			// Escapes and folded line breaks change the characters, so the value can be sliced only if it matches the input.
+			if (length == chunks.length() && length > 0 && regionMatches(chunks, offset)) {
+				Token token = new ScalarToken(new CharSlice(buffer, offset, length), false, style);
+				bufferShared = true;
+				forward();
+				return token;
+			}
 		}
 		forward();
 		return new ScalarToken(chunks.toString(), false, style);
 	}
 
-	private String scanFlowScalarNonSpaces (boolean dbl) {
-		StringBuilder chunks = new StringBuilder();
+	private boolean regionMatches (StringBuilder chunks, int offset) {
+		char[] buffer = this.buffer;
+		for (int i = 0, n = chunks.length(); i < n; i++)
+			if (chunks.charAt(i) != buffer[offset + i]) return false;
+		return true;
+	}
+
+	private void scanFlowScalarNonSpaces (boolean dbl, StringBuilder chunks) {
 		for (;;) {
 			int length = 0;
-			while (SPACES_AND_STUFF.indexOf(peek(length)) == -1)
+			while (!is(peek(length), SPACES_AND_STUFF))
 				length++;
-			if (length != 0) chunks.append(prefixForward(length));
-			// forward(length);
+			if (length != 0) {
+				chunks.append(buffer, pointer, length);
+				forward(length);
+			}
 			char ch = peek();
 			if (!dbl && ch == '\'' && peek(1) == '\'') {
-				chunks.append("'");
+				chunks.append('\'');
 				forward(2);
-			} else if (dbl && ch == '\'' || !dbl && DOUBLE_ESC.indexOf(ch) != -1) {
+			} else if (dbl && ch == '\'' || !dbl && is(ch, DOUBLE_ESC)) {
 				chunks.append(ch);
 				forward();
 			} else if (dbl && ch == '\\') {
 				forward();
 				ch = peek();
-				if (ESCAPE_REPLACEMENTS.containsKey(ch)) {
-					chunks.append(ESCAPE_REPLACEMENTS.get(ch));
+				if (ch < 128 && ESCAPE_REPLACEMENTS[ch] != -1) {
+					chunks.append((char)ESCAPE_REPLACEMENTS[ch]);
 					forward();
-				} else if (ESCAPE_CODES.containsKey(ch)) {
-					length = ESCAPE_CODES.get(ch);
+				} else if (ch < 128 && ESCAPE_CODES[ch] != 0) {
+					length = ESCAPE_CODES[ch];
 					forward();
-					String val = prefix(length);
-					if (NOT_HEXA.matcher(val).find())
-						throw new TokenizerException("While scanning a double quoted scalar, expected an escape sequence of " + length
-							+ " hexadecimal numbers but found: " + ch(peek()));
-					chunks.append(Character.toChars(Integer.parseInt(val, 16)));
+					int codePoint = 0;
+					for (int i = 0; i < length; i++) {
+						int digit = hexDigit(peek(i));
+						if (digit == -1)
+							throw new TokenizerException("While scanning a double quoted scalar, expected an escape sequence of " + length
+								+ " hexadecimal numbers but found: " + ch(peek()));
+						// Stop accumulating once out of range so 8 digit escapes cannot overflow.
+						if (codePoint <= Character.MAX_CODE_POINT) codePoint = (codePoint << 4) | digit;
+					}
+					if (codePoint > Character.MAX_CODE_POINT)
+						throw new TokenizerException("While scanning a double quoted scalar, found an escape sequence that is not a valid "
+							+ "Unicode code point: " + prefix(length));
+					chunks.appendCodePoint(codePoint);
 					forward(length);
-				} else if (FULL_LINEBR.indexOf(ch) != -1) {
+				} else if (is(ch, FULL_LINEBR)) {
 					scanLineBreak();
-					chunks.append(scanFlowScalarBreaks());
+					scanFlowScalarBreaks(chunks);
 				} else
 					throw new TokenizerException("While scanning a double quoted scalar, found unknown escape character: " + ch(ch));
 			} else
-				return chunks.toString();
+				return;
 		}
 	}
 
-	private String scanFlowScalarSpaces () {
-		StringBuilder chunks = new StringBuilder();
+	static private int hexDigit (char ch) {
+		if (ch >= '0' && ch <= '9') return ch - '0';
+		if (ch >= 'a' && ch <= 'f') return ch - 'a' + 10;
+		if (ch >= 'A' && ch <= 'F') return ch - 'A' + 10;
+		return -1;
+	}
+
+	private void scanFlowScalarSpaces (StringBuilder chunks) {
 		int length = 0;
-		while (BLANK_T.indexOf(peek(length)) != -1)
+		while (is(peek(length), BLANK_T))
 			length++;
-		String whitespaces = prefixForward(length);
-		// forward(length);
-		char ch = peek();
+		char ch = peek(length);
+		boolean lineBreak = is(ch, FULL_LINEBR);
+		if (ch != '\0' && !lineBreak) chunks.append(buffer, pointer, length);
+		forward(length);
 		if (ch == '\0')
 			throw new TokenizerException("While scanning a quoted scalar, found unexpected end of stream.");
-		else if (FULL_LINEBR.indexOf(ch) != -1) {
-			String lineBreak = scanLineBreak();
-			String breaks = scanFlowScalarBreaks();
-			if (!lineBreak.equals("\n"))
-				chunks.append(lineBreak);
-			else if (breaks.length() == 0) chunks.append(" ");
-			chunks.append(breaks);
-		} else
-			chunks.append(whitespaces);
-		return chunks.toString();
+		else if (lineBreak) {
+			scanLineBreak();
+			int breaksStart = chunks.length();
+			scanFlowScalarBreaks(chunks);
+			if (chunks.length() == breaksStart) chunks.append(' ');
+		}
 	}
 
-	private String scanFlowScalarBreaks () {
-		StringBuilder chunks = new StringBuilder();
-		String pre = null;
+	private void scanFlowScalarBreaks (StringBuilder chunks) {
 		for (;;) {
-			pre = prefix(3);
-			if ((pre.equals("---") || pre.equals("...")) && NULL_BL_T_LINEBR.indexOf(peek(3)) != -1)
+			if (isDocumentIndicator('-') || isDocumentIndicator('.'))
 				throw new TokenizerException("While scanning a quoted scalar, found unexpected document separator.");
-			while (BLANK_T.indexOf(peek()) != -1)
+			while (is(peek(), BLANK_T))
 				forward();
-			if (FULL_LINEBR.indexOf(peek()) != -1)
-				chunks.append(scanLineBreak());
-			else
-				return chunks.toString();
+			if (is(peek(), FULL_LINEBR)) {
+				scanLineBreak();
+				chunks.append('\n');
+			} else
+				return;
 		}
 	}
 
@@ -919,67 +1141,96 @@ public class Tokenizer {
 		 * context cannot contain ',', ':' and '?'. We also keep track of the `allow_simple_key` flag here. Indentation rules are
 		 * loosed for the flow context.
 		 */
-		StringBuilder chunks = new StringBuilder();
+		// When slicing, the chunks are not copied while they are contiguous in the window, which is until a line break is folded.
+		StringBuilder chunks = scalarSlices ? null : new StringBuilder();
+		int sliceLength = 0, sliceLineNumber = getLineNumber();
+		if (scalarSlices) mark = pointer;
 		int ind = indent + 1;
 		String spaces = "";
-		boolean f_nzero = true;
-		Pattern r_check = R_FLOWNONZERO;
-		if (flowLevel == 0) {
-			f_nzero = false;
-			r_check = R_FLOWZERO;
-		}
+		boolean f_nzero = flowLevel != 0;
 		while (peek() != '#') {
 			int length = 0;
-			int chunkSize = 32;
-			Matcher m = null;
-			while (!(m = r_check.matcher(prefix(chunkSize))).find())
-				chunkSize += 32;
-			length = m.start();
-			char ch = peek(length);
-			if (f_nzero && ch == ':' && S4.indexOf(peek(length + 1)) == -1) {
+			char ch;
+			if (f_nzero) {
+				while (!is(ch = peek(length), NULL_BL_T_LINEBR_FLOW))
+					length++;
+			} else {
+				for (;; length++) {
+					ch = peek(length);
+					if (is(ch, NULL_BL_T_LINEBR)) break;
+					if (ch == ':' && is(peek(length + 1), NULL_BL_T_LINEBR)) break;
+				}
+			}
+			if (f_nzero && ch == ':' && !is(peek(length + 1), S4)) {
+				mark = -1;
 				forward(length);
 				throw new TokenizerException(
 					"While scanning a plain scalar, found unexpected ':'. See: http://pyyaml.org/wiki/YAMLColonInFlowContext");
 			}
 			if (length == 0) break;
 			allowSimpleKey = false;
-			chunks.append(spaces);
-			chunks.append(prefixForward(length));
-			// forward(length);
+			if (chunks == null && getLineNumber() != sliceLineNumber) {
+				chunks = new StringBuilder(sliceLength + spaces.length() + length);
+				chunks.append(buffer, mark, sliceLength);
+			}
+			if (chunks == null) {
+				forward(length);
+				sliceLength = pointer - mark;
+			} else {
+				chunks.append(spaces);
+				chunks.append(prefixForward(length));
+				// forward(length);
+			}
 			spaces = scanPlainSpaces();
-			if (spaces.length() == 0 || flowLevel == 0 && column < ind) break;
+			if (spaces.length() == 0 || flowLevel == 0 && getColumn() < ind) break;
 		}
-		return new ScalarToken(chunks.toString(), true);
+		if (chunks != null) {
+			mark = -1;
+			return new ScalarToken(chunks.toString(), true);
+		}
+		int offset = mark;
+		mark = -1;
+		if (sliceLength == 0) return new ScalarToken("", true);
+		bufferShared = true;
+		return new ScalarToken(new CharSlice(buffer, offset, sliceLength), true, (char)0);
 	}
 
+	/** Returns the whitespace after a plain scalar chunk, folded as it is added to the scalar. Strings are only created for runs of
+	 * more than one space and for blank lines, so scanning plain scalars usually allocates nothing here. */
 	private String scanPlainSpaces () {
-		StringBuilder chunks = new StringBuilder();
 		int length = 0;
         // YAML recognizes two white space characters: space and tab.
         while (peek(length) == ' ' || peek(length) == '\t')
 			length++;
-		String whitespaces = prefixForward(length);
-		// forward(length);
-		char ch = peek();
-		if (FULL_LINEBR.indexOf(ch) != -1) {
-			String lineBreak = scanLineBreak();
-			allowSimpleKey = true;
-			if (END_OR_START.matcher(prefix(4)).matches()) return "";
-			StringBuilder breaks = new StringBuilder();
-			while (BLANK_OR_LINEBR.indexOf(peek()) != -1)
-				if (' ' == peek())
-					forward();
-				else {
-					breaks.append(scanLineBreak());
-					if (END_OR_START.matcher(prefix(4)).matches()) return "";
-				}
-			if (!lineBreak.equals("\n"))
-				chunks.append(lineBreak);
-			else if (breaks.length() == 0) chunks.append(" ");
-			chunks.append(breaks);
-		} else
-			chunks.append(whitespaces);
-		return chunks.toString();
+		if (!is(peek(length), FULL_LINEBR)) {
+			if (length == 0) return "";
+			if (length == 1 && peek() == ' ') {
+				forward();
+				return " ";
+			}
+			return prefixForward(length);
+		}
+		forward(length);
+		scanLineBreak();
+		allowSimpleKey = true;
+		if (isDocumentIndicator('-') || isDocumentIndicator('.')) return "";
+		StringBuilder breaks = null;
+		while (is(peek(), BLANK_OR_LINEBR))
+			if (' ' == peek())
+				forward();
+			else {
+				if (breaks == null) breaks = new StringBuilder();
+				breaks.append(scanLineBreak());
+				if (isDocumentIndicator('-') || isDocumentIndicator('.')) return "";
+			}
+		// A single line break is folded to a space.
+		if (breaks == null || breaks.length() == 0) return " ";
+		return breaks.toString();
+	}
+
+	/** Returns true if the next characters are "---" or "..." (three of the specified character) followed by a blank or line break. */
+	private boolean isDocumentIndicator (char indicator) {
+		return peek() == indicator && peek(1) == indicator && peek(2) == indicator && is(peek(3), NULL_BL_T_LINEBR);
 	}
 
 	private String scanTagHandle (String name) {
@@ -988,7 +1239,7 @@ public class Tokenizer {
 		int length = 1;
 		ch = peek(length);
 		if (ch != ' ') {
-			while (ALPHA.indexOf(ch) != -1) {
+			while (is(ch, ALPHA)) {
 				length++;
 				ch = peek(length);
 			}
@@ -1007,7 +1258,7 @@ public class Tokenizer {
 		StringBuilder chunks = new StringBuilder();
 		int length = 0;
 		char ch = peek(length);
-		while (STRANGE_CHAR.indexOf(ch) != -1) {
+		while (is(ch, STRANGE_CHAR)) {
 			if ('%' == ch) {
 				chunks.append(prefixForward(length));
 				// forward(length);
@@ -1048,11 +1299,15 @@ public class Tokenizer {
 		// '\x85' : '\n'
 		// default : ''
 		char val = peek();
-		if (FULL_LINEBR.indexOf(val) != -1) {
-			if (RN.equals(prefix(2)))
+		if (is(val, FULL_LINEBR)) {
+			if (val == '\r' && peek(1) == '\n')
 				forward(2);
 			else
 				forward();
+			if (lazyPosition) {
+				lineNumber++;
+				lineStart = pointer;
+			}
 			return "\n";
 		}
 		return "";
@@ -1072,16 +1327,6 @@ public class Tokenizer {
 		}
 	}
 
-	static class SimpleKey {
-		public final int tokenNumber;
-		public final int column;
-
-		public SimpleKey (int tokenNumber, int column) {
-			this.tokenNumber = tokenNumber;
-			this.column = column;
-		}
-	}
-
 	public static void main (String[] args) throws Exception {
 		for (Iterator iter = new Tokenizer(new FileReader("test/test.yml")).iterator(); iter.hasNext();)
 			System.out.println(iter.next());
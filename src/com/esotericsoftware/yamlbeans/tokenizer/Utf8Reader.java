@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2008 Nathan Sweet
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR
+ * IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.esotericsoftware.yamlbeans.tokenizer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+/** Decodes UTF-8 bytes directly into the caller's char[], with a fast path for ASCII. This avoids the CharsetDecoder and the
+ * intermediate buffers of an InputStreamReader. Malformed input is replaced with U+FFFD the same as the JDK's UTF-8 decoder.
+ * @author <a href="mailto:misc@n4te.com">Nathan Sweet</a> */
+class Utf8Reader extends Reader {
+	static final int DEFAULT_BUFFER_SIZE = 8192;
+	static final int MAP_SIZE = 1 << 28;
+
+	private final InputStream input;
+	private final FileChannel channel;
+	private long channelPosition, channelSize;
+	private ByteBuffer source;
+	private byte[] bytes;
+	private int position, limit;
+	private boolean eof;
+	private char pendingLowSurrogate;
+
+	public Utf8Reader (InputStream input) {
+		if (input == null) throw new IllegalArgumentException("input cannot be null.");
+		this.input = input;
+		channel = null;
+		bytes = new byte[DEFAULT_BUFFER_SIZE];
+	}
+
+	public Utf8Reader (byte[] bytes) {
+		if (bytes == null) throw new IllegalArgumentException("bytes cannot be null.");
+		input = null;
+		channel = null;
+		this.bytes = bytes;
+		limit = bytes.length;
+		eof = true;
+	}
+
+	/** Decodes the bytes between the buffer's position and limit. The buffer's position is not changed. A buffer without a
+	 * backing array, such as a mapped file, is bulk copied into a small reused buffer a chunk at a time rather than decoded with
+	 * absolute gets, which measured about half as fast. */
+	public Utf8Reader (ByteBuffer buffer) {
+		if (buffer == null) throw new IllegalArgumentException("buffer cannot be null.");
+		input = null;
+		channel = null;
+		if (buffer.hasArray()) {
+			bytes = buffer.array();
+			position = buffer.arrayOffset() + buffer.position();
+			limit = buffer.arrayOffset() + buffer.limit();
+			eof = true;
+		} else {
+			source = buffer.duplicate();
+			bytes = new byte[DEFAULT_BUFFER_SIZE];
+		}
+	}
+
+	/** Decodes the channel from its current position to its end. The file is memory mapped a region of up to 256MB at a time, so
+	 * files larger than 2GB can be read. The reader drops each region once it is consumed, but the JDK only unmaps a region when it
+	 * is garbage collected. */
+	public Utf8Reader (FileChannel channel) throws IOException {
+		if (channel == null) throw new IllegalArgumentException("channel cannot be null.");
+		input = null;
+		this.channel = channel;
+		channelPosition = channel.position();
+		channelSize = channel.size();
+		bytes = new byte[DEFAULT_BUFFER_SIZE];
+	}
+
+	public int read (char[] chars, int offset, int length) throws IOException {
+		if (length == 0) return 0;
+		if (pendingLowSurrogate != 0) {
+			chars[offset] = pendingLowSurrogate;
+			pendingLowSurrogate = 0;
+			return 1;
+		}
+		for (;;) {
+			int count = decode(chars, offset, length);
+			if (count > 0) return count;
+			if (eof) return -1;
+			fill();
+		}
+	}
+
+	private int decode (char[] chars, int offset, int length) {
+		byte[] bytes = this.bytes;
+		int position = this.position, limit = this.limit;
+		int i = offset, end = offset + length;
+		while (i < end && position < limit) {
+			int b1 = bytes[position];
+			if (b1 >= 0) {
+				chars[i++] = (char)b1;
+				position++;
+				continue;
+			}
+			b1 &= 0xFF;
+			int count, min2 = 0x80, max2 = 0xBF;
+			if (b1 < 0xC2) {
+				chars[i++] = '\uFFFD';
+				position++;
+				continue;
+			} else if (b1 < 0xE0)
+				count = 2;
+			else if (b1 < 0xF0) {
+				count = 3;
+				if (b1 == 0xE0) min2 = 0xA0;
+			} else if (b1 < 0xF5) {
+				count = 4;
+				if (b1 == 0xF0)
+					min2 = 0x90;
+				else if (b1 == 0xF4) max2 = 0x8F;
+			} else {
+				chars[i++] = '\uFFFD';
+				position++;
+				continue;
+			}
+			// Wait for the rest of the sequence unless the input has ended.
+			if (position + count > limit && !eof) break;
+			int b2 = position + 1 < limit ? bytes[position + 1] & 0xFF : -1;
+			if (b2 < min2 || b2 > max2) {
+				chars[i++] = '\uFFFD';
+				position++;
+				continue;
+			}
+			if (count == 2) {
+				chars[i++] = (char)(((b1 & 0x1F) << 6) | (b2 & 0x3F));
+				position += 2;
+				continue;
+			}
+			int b3 = position + 2 < limit ? bytes[position + 2] & 0xFF : -1;
+			if (b3 < 0x80 || b3 > 0xBF) {
+				chars[i++] = '\uFFFD';
+				position += 2;
+				continue;
+			}
+			if (count == 3) {
+				char ch = (char)(((b1 & 0x0F) << 12) | ((b2 & 0x3F) << 6) | (b3 & 0x3F));
+				chars[i++] = Character.isSurrogate(ch) ? '\uFFFD' : ch;
+				position += 3;
+				continue;
+			}
+			int b4 = position + 3 < limit ? bytes[position + 3] & 0xFF : -1;
+			if (b4 < 0x80 || b4 > 0xBF) {
+				chars[i++] = '\uFFFD';
+				position += 3;
+				continue;
+			}
+			int codePoint = ((b1 & 0x07) << 18) | ((b2 & 0x3F) << 12) | ((b3 & 0x3F) << 6) | (b4 & 0x3F);
+			chars[i++] = Character.highSurrogate(codePoint);
+			if (i < end)
+				chars[i++] = Character.lowSurrogate(codePoint);
+			else
+				pendingLowSurrogate = Character.lowSurrogate(codePoint);
+			position += 4;
+		}
+		this.position = position;
+		return i - offset;
+	}
+
+	/** Moves any partial sequence to the start of the bytes and reads more after it. */
+	private void fill () throws IOException {
+		int remaining = limit - position;
+		System.arraycopy(bytes, position, bytes, 0, remaining);
+		position = 0;
+		limit = remaining;
+		int count;
+		if (input != null)
+			count = input.read(bytes, limit, bytes.length - limit);
+		else {
+			// Drop a consumed region so it can be unmapped.
+			if (source != null && !source.hasRemaining()) source = null;
+			if (channel != null && source == null && channelPosition < channelSize) {
+				long size = Math.min(MAP_SIZE, channelSize - channelPosition);
+				source = channel.map(MapMode.READ_ONLY, channelPosition, size);
+				channelPosition += size;
+			}
+			count = source == null ? 0 : Math.min(source.remaining(), bytes.length - limit);
+			if (count == 0)
+				count = -1;
+			else
+				source.get(bytes, limit, count);
+		}
+		if (count == -1)
+			eof = true;
+		else
+			limit += count;
+	}
+
+	public void close () throws IOException {
+		if (input != null) input.close();
+		source = null;
+		if (channel != null) channel.close();
+	}
+}
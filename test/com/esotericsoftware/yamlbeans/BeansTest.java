@@ -94,6 +94,24 @@ public class BeansTest {
 		}
 	}
 
+	@Test
+	public void createObjectCached () throws Exception {
+		Object first = Beans.createObject(MockClassWithPrivateConstructor.class, yamlConfig);
+		assertTrue(first instanceof MockClassWithPrivateConstructor);
+		assertNotSame(first, Beans.createObject(MockClassWithPrivateConstructor.class, yamlConfig));
+		assertTrue(Beans.createObject(List.class, yamlConfig) instanceof ArrayList);
+
+		// Changes to the config are seen by later calls.
+		yamlConfig.setPrivateConstructors(false);
+		try {
+			Beans.createObject(MockClassWithPrivateConstructor.class, yamlConfig);
+			fail();
+		} catch (InvocationTargetException e) {
+		}
+		yamlConfig.setPrivateConstructors(true);
+		assertTrue(Beans.createObject(MockClassWithPrivateConstructor.class, yamlConfig) instanceof MockClassWithPrivateConstructor);
+	}
+
 	@Test
 	public void getPropertiesWithNullType () throws Exception {
 		try {
@@ -545,6 +563,154 @@ public class BeansTest {
 		assertNull(nullProperty);
 	}
 
+	@Test
+	public void getPropertyCached () throws Exception {
+		Beans.Property property = Beans.getProperty(MockClass.class, "intType", true, false, yamlConfig);
+		assertTrue(property instanceof Beans.MethodProperty);
+		assertSame(property, Beans.getProperty(MockClass.class, "intType", true, false, yamlConfig));
+		assertSame(property, Beans.getProperty(MockClass.class, "int-Type", true, false, yamlConfig));
+		assertNull(Beans.getProperty(MockClass.class, "missing", true, false, yamlConfig));
+
+		// Changes to the config are seen by later lookups.
+		assertNull(Beans.getDeferredConstruction(MockClassWithoutNoArgConstructor.class, yamlConfig));
+		assertNull(Beans.getProperty(MockClassWithoutNoArgConstructor.class, "anyType", true, false, yamlConfig));
+		yamlConfig.readConfig.setConstructorParameters(MockClassWithoutNoArgConstructor.class, new Class[] {Object.class},
+			new String[] {"anyType"});
+		assertNotNull(Beans.getDeferredConstruction(MockClassWithoutNoArgConstructor.class, yamlConfig));
+		yamlConfig.setPrivateFields(true);
+		assertNotNull(Beans.getProperty(MockClassWithoutNoArgConstructor.class, "anyType", true, true, yamlConfig));
+	}
+
+	@Test
+	public void getOrderedProperties () throws Exception {
+		Beans.Property[] properties = Beans.getOrderedProperties(MockClass.class, true, false, yamlConfig);
+		assertSame(properties, Beans.getOrderedProperties(MockClass.class, true, false, yamlConfig));
+		assertEquals(new ArrayList(Beans.getProperties(MockClass.class, true, false, yamlConfig)), Arrays.asList(properties));
+		assertEquals("booleanType", properties[0].getName());
+
+		yamlConfig.writeConfig.setKeepBeanPropertyOrder(true);
+		properties = Beans.getOrderedProperties(MockClass.class, true, false, yamlConfig);
+		assertEquals(new ArrayList(Beans.getProperties(MockClass.class, true, false, yamlConfig)), Arrays.asList(properties));
+		assertEquals("booleanType", properties[0].getName());
+		assertEquals("charType", properties[1].getName());
+	}
+
+	@Test
+	public void setPrimitiveProperty () throws Exception {
+		MockClass mockClass = new MockClass();
+		Beans.Property intProperty = Beans.getProperty(MockClass.class, "intType", true, false, yamlConfig);
+		intProperty.setInt(mockClass, 5);
+		assertEquals(5, intProperty.get(mockClass));
+		intProperty.set(mockClass, 6);
+		assertEquals(6, mockClass.getIntType());
+
+		Beans.Property doubleProperty = Beans.getProperty(MockClass.class, "doubleType", false, true, yamlConfig);
+		doubleProperty.setDouble(mockClass, 1.5);
+		assertEquals(1.5, (Double)doubleProperty.get(mockClass), DELTA);
+		// A primitive setter for another type boxes the value.
+		Beans.Property stringProperty = Beans.getProperty(MockClass.class, "stringType", false, true, yamlConfig);
+		try {
+			stringProperty.setInt(mockClass, 1);
+			fail();
+		} catch (Exception expected) {
+		}
+	}
+
+	@Test
+	public void getPropertyWithLambdaAccessors () throws Exception {
+		yamlConfig.setLambdaAccessors(true);
+		assertNotNull(LambdaAccessors.getter(PublicMockClass.class.getMethod("getIntType")));
+		assertTrue(LambdaAccessors.primitiveSetter(PublicMockClass.class.getMethod("setIntType", int.class))
+			instanceof LambdaAccessors.IntSetter);
+		assertNull(LambdaAccessors.primitiveSetter(PublicMockClass.class.getMethod("setStringType", String.class)));
+		// Methods of a class that is not public use reflection.
+		assertNull(LambdaAccessors.getter(MockClass.class.getMethod("getIntType")));
+
+		PublicMockClass object = new PublicMockClass();
+		Beans.getProperty(PublicMockClass.class, "intType", true, false, yamlConfig).setInt(object, 5);
+		Beans.getProperty(PublicMockClass.class, "longType", true, false, yamlConfig).setLong(object, 6);
+		Beans.getProperty(PublicMockClass.class, "floatType", true, false, yamlConfig).setFloat(object, 1.5f);
+		Beans.getProperty(PublicMockClass.class, "doubleType", true, false, yamlConfig).setDouble(object, 2.5);
+		Beans.getProperty(PublicMockClass.class, "booleanType", true, false, yamlConfig).setBoolean(object, true);
+		Beans.Property stringProperty = Beans.getProperty(PublicMockClass.class, "stringType", true, false, yamlConfig);
+		stringProperty.set(object, "abc");
+		assertEquals(5, object.getIntType());
+		assertEquals(6, object.getLongType());
+		assertEquals(1.5f, object.getFloatType(), DELTA);
+		assertEquals(2.5, object.getDoubleType(), DELTA);
+		assertTrue(object.isBooleanType());
+		assertEquals("abc", stringProperty.get(object));
+		assertEquals(5, Beans.getProperty(PublicMockClass.class, "intType", true, false, yamlConfig).get(object));
+		// A primitive setter for another type boxes the value.
+		try {
+			stringProperty.setInt(object, 1);
+			fail();
+		} catch (Exception expected) {
+		}
+
+		MockClass mockClass = new MockClass();
+		Beans.Property intProperty = Beans.getProperty(MockClass.class, "intType", true, false, yamlConfig);
+		intProperty.setInt(mockClass, 7);
+		assertEquals(7, intProperty.get(mockClass));
+	}
+
+	static public class PublicMockClass {
+		private boolean booleanType;
+		private int intType;
+		private long longType;
+		private float floatType;
+		private double doubleType;
+		private String stringType;
+
+		public boolean isBooleanType () {
+			return booleanType;
+		}
+
+		public void setBooleanType (boolean booleanType) {
+			this.booleanType = booleanType;
+		}
+
+		public int getIntType () {
+			return intType;
+		}
+
+		public void setIntType (int intType) {
+			this.intType = intType;
+		}
+
+		public long getLongType () {
+			return longType;
+		}
+
+		public void setLongType (long longType) {
+			this.longType = longType;
+		}
+
+		public float getFloatType () {
+			return floatType;
+		}
+
+		public void setFloatType (float floatType) {
+			this.floatType = floatType;
+		}
+
+		public double getDoubleType () {
+			return doubleType;
+		}
+
+		public void setDoubleType (double doubleType) {
+			this.doubleType = doubleType;
+		}
+
+		public String getStringType () {
+			return stringType;
+		}
+
+		public void setStringType (String stringType) {
+			this.stringType = stringType;
+		}
+	}
+
 	private static class MockClass {
 
 		private boolean booleanType;
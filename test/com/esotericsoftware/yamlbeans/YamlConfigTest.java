@@ -2,9 +2,13 @@ package com.esotericsoftware.yamlbeans;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
@@ -20,6 +24,7 @@ import org.junit.Test;
 import com.esotericsoftware.yamlbeans.YamlConfig.Quote;
 import com.esotericsoftware.yamlbeans.YamlReader.YamlReaderException;
 import com.esotericsoftware.yamlbeans.scalar.DateSerializer;
+import com.esotericsoftware.yamlbeans.scalar.ScalarSerializer;
 
 @SuppressWarnings("synthetic-access")
 public class YamlConfigTest {
@@ -82,6 +87,34 @@ public class YamlConfigTest {
 		}
 	}
 
+	@Test
+	public void testScalarSerializerPrecedence() throws YamlException {
+		ScalarSerializer numberSerializer = new TestScalarSerializer();
+		ScalarSerializer comparableSerializer = new TestScalarSerializer();
+		ScalarSerializer bigDecimalSerializer = new TestScalarSerializer();
+		yamlConfig.setScalarSerializer(Number.class, numberSerializer);
+		assertSame(numberSerializer, yamlConfig.getScalarSerializer(BigDecimal.class));
+		assertNull(yamlConfig.getScalarSerializer(String.class));
+
+		// The most specific type wins, otherwise the serializer set first.
+		yamlConfig.setScalarSerializer(Comparable.class, comparableSerializer);
+		assertSame(numberSerializer, yamlConfig.getScalarSerializer(BigDecimal.class));
+		assertSame(comparableSerializer, yamlConfig.getScalarSerializer(String.class));
+		yamlConfig.setScalarSerializer(BigDecimal.class, bigDecimalSerializer);
+		assertSame(bigDecimalSerializer, yamlConfig.getScalarSerializer(BigDecimal.class));
+		assertSame(numberSerializer, yamlConfig.getScalarSerializer(BigInteger.class));
+	}
+
+	static class TestScalarSerializer implements ScalarSerializer {
+		public String write (Object object) {
+			return object.toString();
+		}
+
+		public Object read (String value) {
+			return value;
+		}
+	}
+
 	@Test
 	public void testSetPropertyElementType() throws YamlException {
 		yamlConfig.setPropertyElementType(TestObject.class, "objects", Date.class);
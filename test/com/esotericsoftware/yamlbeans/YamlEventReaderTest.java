@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2008 Nathan Sweet
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR
+ * IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.esotericsoftware.yamlbeans;
+
+import static com.esotericsoftware.yamlbeans.parser.EventType.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.esotericsoftware.yamlbeans.parser.Event;
+import com.esotericsoftware.yamlbeans.parser.EventType;
+import com.esotericsoftware.yamlbeans.parser.ScalarEvent;
+
+import junit.framework.TestCase;
+
+public class YamlEventReaderTest extends TestCase {
+	public void testNext () throws YamlException {
+		YamlEventReader reader = new YamlEventReader("a: [1, 2]\nb: {c: d}\n");
+		EventType[] types = {STREAM_START, DOCUMENT_START, MAPPING_START, SCALAR, SEQUENCE_START, SCALAR, SCALAR, SEQUENCE_END,
+			SCALAR, MAPPING_START, SCALAR, SCALAR, MAPPING_END, MAPPING_END, DOCUMENT_END, STREAM_END};
+		int[] depths = {0, 0, 1, 1, 2, 2, 2, 1, 1, 2, 2, 2, 1, 0, 0, 0};
+		for (int i = 0; i < types.length; i++) {
+			assertEquals(types[i], reader.peek().type);
+			assertEquals(types[i], reader.next().type);
+			assertEquals(depths[i], reader.currentDepth());
+		}
+		assertNull(reader.next());
+	}
+
+	public void testSkipValue () throws YamlException {
+		String yaml = "skip1: {a: &x [1, 'two', \"th\\tree\"], b: *x}\n" //
+			+ "'keep1': plain\n" //
+			+ "skip2: |\n  literal\n  text\n" //
+			+ "keep2: \"quoted\"\n" //
+			+ "skip3:\n- - nested\n  - 'list'\n- k: v\n" //
+			+ "keep3: &anchor value\n" //
+			+ "skip4: 'single'\n" //
+			+ "\"keep4\": [last]\n";
+		YamlConfig config = new YamlConfig();
+		config.readConfig.setBufferSize(4);
+		YamlEventReader reader = new YamlEventReader(yaml, config);
+		assertEquals(STREAM_START, reader.next().type);
+		assertEquals(DOCUMENT_START, reader.next().type);
+		assertEquals(MAPPING_START, reader.next().type);
+		List<String> values = new ArrayList();
+		for (Event event; (event = reader.next()).type != MAPPING_END;) {
+			String key = ((ScalarEvent)event).getValue();
+			if (key.startsWith("skip")) {
+				reader.skipValue();
+				assertEquals(1, reader.currentDepth());
+				continue;
+			}
+			event = reader.next();
+			if (event.type == SEQUENCE_START) {
+				values.add(key + "=" + ((ScalarEvent)reader.next()).getValue());
+				assertEquals(SEQUENCE_END, reader.next().type);
+			} else
+				values.add(key + "=" + ((ScalarEvent)event).getValue());
+		}
+		assertEquals("[keep1=plain, keep2=quoted, keep3=value, keep4=last]", values.toString());
+		assertEquals(0, reader.currentDepth());
+	}
+
+	public void testSkipValueKeepsSlicesOff () throws YamlException {
+		YamlEventReader reader = new YamlEventReader("a: [x, y]\nbkey: 'quoted'\n");
+		for (int i = 0; i < 4; i++)
+			reader.next();
+		reader.skipValue();
+		ScalarEvent key = (ScalarEvent)reader.next();
+		assertEquals("bkey", key.value);
+		assertEquals("quoted", ((ScalarEvent)reader.next()).value);
+	}
+
+	public void testScalarValue () throws YamlException {
+		YamlEventReader reader = new YamlEventReader("[plain]");
+		for (int i = 0; i < 3; i++)
+			reader.next();
+		ScalarEvent event = (ScalarEvent)reader.next();
+		assertEquals("plain", event.value);
+		assertSame(event.value, event.getValue());
+
+		YamlConfig config = new YamlConfig();
+		config.readConfig.setScalarSlices(true);
+		reader = new YamlEventReader("[plain]", config);
+		for (int i = 0; i < 3; i++)
+			reader.next();
+		event = (ScalarEvent)reader.next();
+		assertNull(event.value);
+		assertEquals("plain", event.getValue());
+		assertSame(event.getValue(), event.getValue());
+		assertNull(event.value);
+	}
+
+	public void testSkipPeekedValue () throws YamlException {
+		YamlEventReader reader = new YamlEventReader("[[1, 2], 3]");
+		reader.next();
+		reader.next();
+		assertEquals(SEQUENCE_START, reader.next().type);
+		assertEquals(SEQUENCE_START, reader.peek().type);
+		reader.skipValue();
+		assertEquals("3", ((ScalarEvent)reader.next()).getValue());
+		assertEquals(1, reader.currentDepth());
+		try {
+			reader.skipValue();
+			fail();
+		} catch (YamlException expected) {
+		}
+		assertEquals(SEQUENCE_END, reader.next().type);
+		assertEquals(0, reader.currentDepth());
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2008 Nathan Sweet
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR
+ * IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.esotericsoftware.yamlbeans;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.esotericsoftware.yamlbeans.YamlReaderTest.Test;
+
+import junit.framework.TestCase;
+
+public class YamlMapperTest extends TestCase {
+	public void testReadWrite () throws Exception {
+		YamlConfig config = new YamlConfig();
+		config.writeConfig.setWriteRootTags(false);
+		YamlMapper mapper = new YamlMapper(config);
+		for (int i = 0; i < 3; i++) {
+			Test test = new Test();
+			test.stringValue = "value" + i;
+			test.intValue = i;
+			String yaml = mapper.write(test);
+			assertEquals(write(test, config), yaml);
+
+			Test read = mapper.read(yaml, Test.class);
+			assertEquals("value" + i, read.stringValue);
+			assertEquals(i, read.intValue);
+			assertEquals(i, mapper.read(new StringReader(yaml), Test.class).intValue);
+		}
+
+		// A failed read does not affect the next one.
+		try {
+			mapper.read("stringValue: [unfinished", Test.class);
+			fail();
+		} catch (YamlException ex) {
+		}
+		assertEquals("ok", mapper.read("stringValue: ok", Test.class).stringValue);
+
+		// The writer is flushed but not closed.
+		StringWriter writer = new StringWriter();
+		mapper.write("a", writer);
+		mapper.write("b", writer);
+		assertEquals("a" + System.getProperty("line.separator") + "b" + System.getProperty("line.separator"), writer.toString());
+	}
+
+	public void testThreads () throws Exception {
+		final YamlMapper mapper = new YamlMapper();
+		final List<Throwable> errors = new ArrayList<Throwable>();
+		Thread[] threads = new Thread[4];
+		for (int i = 0; i < threads.length; i++) {
+			final int id = i;
+			threads[i] = new Thread() {
+				public void run () {
+					try {
+						for (int n = 0; n < 500; n++) {
+							Test test = new Test();
+							test.stringValue = id + "-" + n;
+							test.intValue = n;
+							Test read = mapper.read(mapper.write(test), Test.class);
+							assertEquals(test.stringValue, read.stringValue);
+							assertEquals(n, read.intValue);
+						}
+					} catch (Throwable ex) {
+						synchronized (errors) {
+							errors.add(ex);
+						}
+					}
+				}
+			};
+			threads[i].start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+		if (!errors.isEmpty()) throw new RuntimeException(errors.get(0));
+	}
+
+	private String write (Object object, YamlConfig config) throws YamlException {
+		StringWriter buffer = new StringWriter();
+		YamlWriter writer = new YamlWriter(buffer, config);
+		writer.write(object);
+		writer.close();
+		return buffer.toString();
+	}
+}
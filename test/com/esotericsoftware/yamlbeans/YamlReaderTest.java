@@ -16,8 +16,16 @@
 
 package com.esotericsoftware.yamlbeans;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.StringReader;
 import java.io.StringWriter;
+import java.math.BigInteger;
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -25,6 +33,7 @@ import java.util.Map;
 
 
 import com.esotericsoftware.yamlbeans.YamlReader.YamlReaderException;
+import com.esotericsoftware.yamlbeans.scalar.SchemaResolver;
 
 import junit.framework.TestCase;
 
@@ -415,6 +424,36 @@ public class YamlReaderTest extends TestCase {
 		
 	}
 	
+	public void testTagClassCached () throws YamlException {
+		final List<String> found = new ArrayList();
+		YamlReader reader = new YamlReader("- !java.util.ArrayList []\n- !java.util.ArrayList []\n- !com.example.Missing {}") {
+			protected Class<?> findTagClass (String tag, ClassLoader classLoader) throws ClassNotFoundException {
+				found.add(tag);
+				return super.findTagClass(tag, classLoader);
+			}
+		};
+		try {
+			reader.read();
+			fail();
+		} catch (YamlException expected) {
+		}
+		assertEquals(2, found.size());
+
+		reader.reset(new StringReader("!com.example.Missing {}"));
+		try {
+			reader.read();
+			fail();
+		} catch (YamlException expected) {
+		}
+		assertEquals(2, found.size());
+
+		// A different class loader isn't answered from the cache.
+		reader.getConfig().readConfig.setClassLoader(new URLClassLoader(new URL[0]));
+		reader.reset(new StringReader("!java.util.ArrayList []"));
+		reader.read();
+		assertEquals(3, found.size());
+	}
+
 	public void testIgnoreTypeTagsTopLevel () throws YamlException {
 		// We are parsing this document that was output by another program using YamlBeans, that includes
 		// a type tag for a class that we don't have on our classpath.
@@ -505,6 +544,74 @@ public class YamlReaderTest extends TestCase {
 		assertEquals(money, moneyValue);
 	}
 
+	public void testGuessNumberForms () throws YamlException {
+		YamlConfig config = new YamlConfig();
+		config.readConfig.setGuessNumberTypes(true);
+		List list = (List)new YamlReader("[-9223372036854775808, '#1F', 09, 1e3, 0x1p4, 2.5f, .5, NaN, -Infinity, 1e, 0x1.8, "
+			+ "9223372036854775808, abc, '', true]", config).read();
+		assertEquals(Long.MIN_VALUE, list.get(0));
+		assertEquals(31L, list.get(1));
+		assertEquals(9d, list.get(2));
+		assertEquals(1000d, list.get(3));
+		assertEquals(16d, list.get(4));
+		assertEquals(2.5d, list.get(5));
+		assertEquals(0.5d, list.get(6));
+		assertEquals(Double.NaN, list.get(7));
+		assertEquals(Double.NEGATIVE_INFINITY, list.get(8));
+		assertEquals("1e", list.get(9));
+		assertEquals("0x1.8", list.get(10));
+		assertEquals(9223372036854775808d, list.get(11));
+		assertEquals("abc", list.get(12));
+		assertEquals("", list.get(13));
+		assertEquals("true", list.get(14));
+	}
+
+	public void testScalarResolver () throws YamlException {
+		String yaml = "- null\n- ~\n- True\n- 0x1F\n- 0o17\n- 017\n- -1.5e3\n- .inf\n- .NaN\n- '1'\n- !!str 2\n- yes\n- 1_000\n"
+			+ "- 1:30\n- 9223372036854775808\n- abc";
+		YamlConfig config = new YamlConfig();
+		config.readConfig.setScalarResolver(SchemaResolver.CORE);
+		List list = (List)new YamlReader(yaml, config).read();
+		assertNull(list.get(0));
+		assertNull(list.get(1));
+		assertEquals(Boolean.TRUE, list.get(2));
+		assertEquals(31L, list.get(3));
+		assertEquals(15L, list.get(4));
+		assertEquals(17L, list.get(5));
+		assertEquals(-1500d, list.get(6));
+		assertEquals(Double.POSITIVE_INFINITY, list.get(7));
+		assertEquals(Double.NaN, list.get(8));
+		assertEquals("1", list.get(9));
+		assertEquals("2", list.get(10));
+		assertEquals("yes", list.get(11));
+		assertEquals("1_000", list.get(12));
+		assertEquals("1:30", list.get(13));
+		assertEquals(new BigInteger("9223372036854775808"), list.get(14));
+		assertEquals("abc", list.get(15));
+
+		config.readConfig.setScalarResolver(SchemaResolver.YAML_1_1);
+		list = (List)new YamlReader(yaml, config).read();
+		assertEquals(31L, list.get(3));
+		assertEquals("0o17", list.get(4));
+		assertEquals(15L, list.get(5));
+		assertEquals(Boolean.TRUE, list.get(11));
+		assertEquals(1000L, list.get(12));
+		assertEquals(90L, list.get(13));
+
+		config.readConfig.setScalarResolver(SchemaResolver.JSON);
+		list = (List)new YamlReader(yaml, config).read();
+		assertNull(list.get(0));
+		assertEquals("~", list.get(1));
+		assertEquals("True", list.get(2));
+		assertEquals("0x1F", list.get(3));
+		assertEquals(-1500d, list.get(6));
+
+		Map map = (Map)new YamlReader("a: &num 12\nb: *num\nc: false", config).read();
+		assertEquals(12L, map.get("a"));
+		assertSame(map.get("a"), map.get("b"));
+		assertEquals(Boolean.FALSE, map.get("c"));
+	}
+
     public void testGuessOctNumberAndHexNumber() throws YamlException {
 
         // Octal number string
@@ -813,4 +920,133 @@ public class YamlReaderTest extends TestCase {
 		} catch (YamlReaderException e) {
 		}
 	}
+
+	public void testReadUtf8Bytes () throws Exception {
+		String yaml = "stringValue: caf\u00e9 \u20ac \ud83d\ude00\nintValue: 123\n";
+		byte[] bytes = yaml.getBytes("UTF-8");
+		Test test = new YamlReader(bytes).read(Test.class);
+		assertEquals("caf\u00e9 \u20ac \ud83d\ude00", test.stringValue);
+		assertEquals(123, test.intValue);
+
+		YamlConfig config = new YamlConfig();
+		config.readConfig.setBufferSize(2);
+		test = new YamlReader(new ByteArrayInputStream(bytes), config).read(Test.class);
+		assertEquals("caf\u00e9 \u20ac \ud83d\ude00", test.stringValue);
+
+		// Malformed bytes are replaced, the same as an InputStreamReader.
+		test = new YamlReader(new byte[] {'s', 't', 'r', 'i', 'n', 'g', 'V', 'a', 'l', 'u', 'e', ':', ' ', 'a', (byte)0xC3, 'b'})
+			.read(Test.class);
+		assertEquals("a\ufffdb", test.stringValue);
+	}
+
+	public void testReset () throws Exception {
+		YamlConfig config = new YamlConfig();
+		config.readConfig.setBufferSize(4);
+		config.readConfig.setScalarSlices(true);
+		config.readConfig.setLazyPosition(true);
+		YamlReader reader = new YamlReader("--- &a\nstringValue: first\n--- [{stringValue: unfinished", config);
+		Test first = reader.read(Test.class);
+		assertEquals("first", first.stringValue);
+		assertSame(first, reader.get("a"));
+
+		// Reset in the middle of a flow collection, then read a different stream.
+		reader.reset(new StringReader("stringValue: second\nintValue: 2\n"));
+		assertNull(reader.get("a"));
+		Test second = reader.read(Test.class);
+		assertEquals("second", second.stringValue);
+		assertEquals(2, second.intValue);
+		assertNull(reader.read(Test.class));
+
+		reader.reset(new StringReader("- a\n- b\n"));
+		assertEquals("[a, b]", reader.read().toString());
+	}
+
+	public void testReadPrimitives () throws Exception {
+		YamlConfig config = new YamlConfig();
+		config.readConfig.setScalarSlices(true);
+		String yaml = "intValue: -123456789\nlongValue: 123456789012345678\ndoubleValue: 3.14159e-3\nfloatValue: 0.1\n"
+			+ "booleanValue: TRUE\n";
+		Test test = new YamlReader(yaml, config).read(Test.class);
+		assertEquals(-123456789, test.intValue);
+		assertEquals(123456789012345678L, test.longValue);
+		assertEquals(3.14159e-3, test.doubleValue);
+		assertEquals(0.1f, test.floatValue);
+		assertTrue(test.booleanValue);
+
+		// Forms the fast path doesn't handle are converted the same as before.
+		yaml = "intValue: 0x1F\nlongValue: -9223372036854775808\ndoubleValue: 1.7976931348623157e308\nfloatValue: NaN\n"
+			+ "booleanValue: yes\n";
+		test = new YamlReader(yaml, config).read(Test.class);
+		assertEquals(31, test.intValue);
+		assertEquals(Long.MIN_VALUE, test.longValue);
+		assertEquals(Double.MAX_VALUE, test.doubleValue);
+		assertTrue(Float.isNaN(test.floatValue));
+		assertFalse(test.booleanValue);
+
+		try {
+			new YamlReader("intValue: 2147483648", config).read(Test.class);
+			fail();
+		} catch (YamlException expected) {
+		}
+	}
+
+	public void testReadPrimitivesThroughOverriddenReadValue () throws Exception {
+		final List<Class> types = new ArrayList();
+		YamlReader reader = new YamlReader("intValue: 5\nstringValue: x\ndoubleValue: 1.5\nbooleanValue: true\n") {
+			protected Object readValue (Class type, Class elementType, Class defaultType) throws YamlException {
+				types.add(type);
+				return super.readValue(type, elementType, defaultType);
+			}
+		};
+		Test test = reader.read(Test.class);
+		assertEquals(5, test.intValue);
+		assertEquals(1.5, test.doubleValue);
+		assertEquals(Arrays.asList(Test.class, null, int.class, null, String.class, null, double.class, null, boolean.class), types);
+
+		types.clear();
+		reader.reset(new StringReader("[1, 2]"));
+		assertTrue(Arrays.equals(new long[] {1, 2}, reader.read(long[].class)));
+		assertEquals(Arrays.asList(long[].class, long.class, long.class), types);
+	}
+
+	public void testReadPrimitiveArray () throws Exception {
+		StringBuilder yaml = new StringBuilder("arrayInts: [");
+		for (int i = 0; i < 100; i++)
+			yaml.append(i * 3 - 50).append(", ");
+		// Forms the fast path doesn't handle are converted the same as for other arrays.
+		yaml.append("0x10, 007, &a 8, *a]");
+		Test test = read(yaml.toString());
+		assertEquals(104, test.arrayInts.length);
+		for (int i = 0; i < 100; i++)
+			assertEquals(i * 3 - 50, test.arrayInts[i]);
+		assertEquals(16, test.arrayInts[100]);
+		assertEquals(7, test.arrayInts[101]);
+		assertEquals(8, test.arrayInts[102]);
+		assertEquals(8, test.arrayInts[103]);
+
+		test = read("arrayInts: []");
+		assertEquals(0, test.arrayInts.length);
+
+		double[] doubles = new YamlReader("[1.5, -2e-3, Infinity, 4]").read(double[].class);
+		assertTrue(Arrays.equals(new double[] {1.5, -2e-3, Double.POSITIVE_INFINITY, 4}, doubles));
+	}
+
+	public void testReadMappedFile () throws Exception {
+		File file = File.createTempFile("yamlbeans", ".yml");
+		try {
+			FileOutputStream output = new FileOutputStream(file);
+			String tag = "--- !com.esotericsoftware.yamlbeans.YamlReaderTest$Test\n";
+			output.write((tag + "stringValue: caf\u00e9\n" + tag + "intValue: 2\n").getBytes("UTF-8"));
+			output.close();
+
+			YamlReader reader = YamlReader.fromFile(file.toPath());
+			Iterator<Test> iter = reader.readAll(Test.class);
+			assertEquals("caf\u00e9", iter.next().stringValue);
+			assertEquals(2, iter.next().intValue);
+			assertFalse(iter.hasNext());
+			reader.close();
+		} finally {
+			file.delete();
+		}
+	}
 }
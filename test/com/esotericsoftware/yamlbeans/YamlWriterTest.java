@@ -22,6 +22,7 @@ import java.beans.ConstructorProperties;
 import java.io.File;
 import java.io.StringWriter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -327,6 +328,87 @@ public class YamlWriterTest extends TestCase {
 				+ "   stringValue: test" + LINE_SEPARATOR + "key2: *t" + LINE_SEPARATOR, sw.toString());
 	}
 
+	public void testReset () throws YamlException {
+		Test test = new Test();
+		test.stringValue = "test";
+		List<Test> list = new ArrayList<Test>();
+		list.add(test);
+		list.add(test);
+
+		YamlConfig config = new YamlConfig();
+		config.writeConfig.setWriteRootTags(false);
+		StringWriter sw = new StringWriter();
+		YamlWriter yamlWriter = new YamlWriter(sw, config);
+		yamlWriter.write(list);
+		yamlWriter.close();
+		String expected = sw.toString();
+
+		// Objects queued for anchoring before the reset are discarded.
+		yamlWriter.reset(new StringWriter());
+		yamlWriter.write(list);
+		sw = new StringWriter();
+		yamlWriter.reset(sw);
+		yamlWriter.write(list);
+		yamlWriter.close();
+		assertEquals(expected, sw.toString());
+	}
+
+	public void testPrimitiveArrays () throws Exception {
+		PrimitiveArrays arrays = new PrimitiveArrays();
+		arrays.ints = new int[] {1, -2, Integer.MAX_VALUE, Integer.MIN_VALUE};
+		arrays.longs = new long[] {Long.MIN_VALUE, 0, 1234567890123L};
+		arrays.floats = new float[] {0.1f, -1.5e-7f, Float.NaN, Float.POSITIVE_INFINITY};
+		arrays.doubles = new double[] {0.1, Math.PI, Double.MIN_VALUE, Double.NEGATIVE_INFINITY};
+		arrays.booleans = new boolean[] {true, false};
+		arrays.shorts = new short[] {3, -4};
+		PrimitiveArrays result = roundTrip(arrays, PrimitiveArrays.class, new YamlConfig());
+		assertTrue(Arrays.equals(arrays.ints, result.ints));
+		assertTrue(Arrays.equals(arrays.longs, result.longs));
+		assertTrue(Arrays.equals(arrays.floats, result.floats));
+		assertTrue(Arrays.equals(arrays.doubles, result.doubles));
+		assertTrue(Arrays.equals(arrays.booleans, result.booleans));
+		assertTrue(Arrays.equals(arrays.shorts, result.shorts));
+
+		// Elements are written with a scalar serializer that applies to their wrapper type.
+		YamlConfig config = new YamlConfig();
+		config.setScalarSerializer(Number.class, new ScalarSerializer<Number>() {
+			public String write (Number object) {
+				return "0x" + Long.toHexString(object.longValue());
+			}
+
+			public Number read (String value) {
+				return Long.decode(value);
+			}
+		});
+		arrays = new PrimitiveArrays();
+		arrays.ints = new int[] {255, 16};
+		StringWriter sw = new StringWriter();
+		YamlWriter yamlWriter = new YamlWriter(sw, config);
+		yamlWriter.write(arrays);
+		yamlWriter.close();
+		assertTrue(sw.toString().contains(" 0xff" + LINE_SEPARATOR));
+	}
+
+	public void testJavaTime () throws Exception {
+		try {
+			Class.forName("java.time.Instant");
+		} catch (ClassNotFoundException ex) {
+			return; // Before Java 8.
+		}
+		String[] values = {"!java.time.Instant 2001-12-15T02:59:43.100Z", "!java.time.LocalDate 2001-12-14",
+			"!java.time.LocalDateTime 2001-12-14T21:59:43.100", "!java.time.OffsetDateTime 2001-12-14T21:59:43.100-05:00",
+			"!java.time.Duration PT1H30M"};
+		for (String value : values) {
+			Object object = new YamlReader(value).read();
+			assertEquals(value.substring(1, value.indexOf(' ')), object.getClass().getName());
+			StringWriter sw = new StringWriter();
+			YamlWriter yamlWriter = new YamlWriter(sw);
+			yamlWriter.write(object);
+			yamlWriter.close();
+			assertEquals(value + LINE_SEPARATOR, sw.toString());
+		}
+	}
+
 	private Object roundTrip (Object object) throws Exception {
 		return roundTrip(object, null, new YamlConfig());
 	}
@@ -371,6 +453,15 @@ public class YamlWriterTest extends TestCase {
 		}
 	}
 
+	static public class PrimitiveArrays {
+		public int[] ints;
+		public long[] longs;
+		public float[] floats;
+		public double[] doubles;
+		public boolean[] booleans;
+		public short[] shorts;
+	}
+
 	static public class Test2 extends Test {
 		String value;
 
@@ -0,0 +1,66 @@
+package com.esotericsoftware.yamlbeans.scalar;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Date;
+import java.util.TimeZone;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.esotericsoftware.yamlbeans.YamlException;
+
+public class DateSerializerTest {
+	private TimeZone defaultTimeZone;
+	private DateSerializer serializer;
+
+	@Before
+	public void setup () {
+		defaultTimeZone = TimeZone.getDefault();
+		TimeZone.setDefault(TimeZone.getTimeZone("GMT+2"));
+		serializer = new DateSerializer();
+	}
+
+	@After
+	public void teardown () {
+		TimeZone.setDefault(defaultTimeZone);
+	}
+
+	@Test
+	public void testLocalForms () throws YamlException {
+		// 2001-12-14 21:59:43 GMT+2
+		long time = 1008359983000L;
+		assertEquals(time, serializer.read("2001-12-14 21:59:43").getTime());
+		assertEquals(time, serializer.read("2001-12-14T21:59:43").getTime());
+		assertEquals(time + 100, serializer.read("2001-12-14 21:59:43.10").getTime());
+		assertEquals(time - 43000, serializer.read("2001-12-14 21:59").getTime());
+		assertEquals(1008280800000L, serializer.read("2001-12-14").getTime());
+		assertEquals("2001-12-14 21:59:43", serializer.write(new Date(time)));
+		assertEquals("0099-01-02 03:04:05", serializer.write(serializer.read("0099-01-02 03:04:05")));
+	}
+
+	@Test
+	public void testTimeZones () throws YamlException {
+		// 2001-12-15 02:59:43.1 UTC
+		long time = 1008385183100L;
+		assertEquals(time, serializer.read("2001-12-15T02:59:43.1Z").getTime());
+		assertEquals(time, serializer.read("2001-12-14t21:59:43.10-05:00").getTime());
+		assertEquals(time, serializer.read("2001-12-14 21:59:43.10 -5").getTime());
+		assertEquals(time, serializer.read("2001-12-15 2:59:43.10 Z").getTime());
+		assertEquals(time, serializer.read("2001-12-15T08:29:43.100+0530").getTime());
+	}
+
+	@Test
+	public void testOtherForms () throws YamlException {
+		assertEquals(1008385183100L, serializer.read("1008385183100").getTime());
+		assertEquals(-1000, serializer.read("-1000").getTime());
+		// Not a timestamp, parsed by the fallback formats.
+		assertEquals(1008280800000L, serializer.read("2001-012-14").getTime());
+	}
+
+	@Test(expected = YamlException.class)
+	public void testInvalid () throws YamlException {
+		serializer.read("yesterday");
+	}
+}
@@ -7,10 +7,15 @@ import java.io.BufferedReader;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.StringReader;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class TokenizerTest {
 
@@ -195,4 +200,200 @@ public class TokenizerTest {
         tokenizer.getNextToken();
     }
 
-}
\ No newline at end of file
+    /**
+     * Purpose: Ensuring that the input window produces the same tokens regardless of its size
+     * Input: Tokenizer(Reader, int) with window sizes smaller than the tokens being scanned
+     * Expected:
+     * the same tokens as Tokenizer(String)
+     * Tokenizer(Reader, 0) throws IllegalArgumentException.class
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testBufferSize() {
+        String yaml = "key: a plain scalar that is longer than the window\n" +
+            "list:\n" +
+            "- 'single quoted'\n" +
+            "- \"double\\tquoted\"\n" +
+            "- |\n" +
+            "  literal\n" +
+            "  block\n" +
+            "---\n" +
+            "{a: [1, 2], b: c}\n";
+        for (int bufferSize = 1; bufferSize <= 16; bufferSize++) {
+            Iterator expected = new Tokenizer(yaml).iterator();
+            Iterator actual = new Tokenizer(new StringReader(yaml), bufferSize).iterator();
+            while (expected.hasNext() || actual.hasNext()) {
+                assertEquals(expected.next() + "", actual.next() + "");
+            }
+        }
+
+        new Tokenizer(new StringReader(yaml), 0);
+    }
+
+    /**
+     * Purpose: Scanning plain scalars that end at ": " or at a flow indicator, including a scalar much longer than the window
+     * Input: Tokenizer("a:b: c d\n" + 10000 'x' characters + ": [e f, g]\n...\n")
+     * Expected:
+     * the scalar values are "a:b", "c d", the long scalar, "e f" and "g"
+     */
+    @Test
+    public void testScanPlain() {
+        StringBuilder longScalar = new StringBuilder();
+        for (int i = 0; i < 10000; i++)
+            longScalar.append('x');
+        String yaml = "a:b: c d\n" + longScalar + ": [e f, g]\n...\n";
+        StringBuilder values = new StringBuilder();
+        Iterator iter = new Tokenizer(new StringReader(yaml), 16).iterator();
+        while (iter.hasNext()) {
+            Object token = iter.next();
+            if (token instanceof ScalarToken) values.append(((ScalarToken)token).getValue()).append('|');
+        }
+        assertEquals("a:b|c d|" + longScalar + "|e f|g|", values.toString());
+    }
+
+    /**
+     * Purpose: Tokenizing collections nested deeper than the initial token queue, indent stack and simple key capacity
+     * Input: 40 nested block mappings followed by 40 nested flow mappings with simple keys
+     * Expected:
+     * 40 BLOCK_MAPPING_START, 40 FLOW_MAPPING_START and 80 KEY tokens, and the last token is STREAM_END
+     */
+    @Test
+    public void testDeepNesting() {
+        StringBuilder yaml = new StringBuilder();
+        String indent = "";
+        for (int i = 0; i < 40; i++) {
+            yaml.append(indent).append("k").append(i).append(":\n");
+            indent += " ";
+        }
+        yaml.append(indent);
+        for (int i = 0; i < 40; i++)
+            yaml.append("{f").append(i).append(": ");
+        yaml.append("v");
+        for (int i = 0; i < 40; i++)
+            yaml.append("}");
+        yaml.append("\n");
+        int blockMappings = 0, flowMappings = 0, keys = 0;
+        Token last = null;
+        Iterator iter = new Tokenizer(yaml.toString()).iterator();
+        while (iter.hasNext()) {
+            last = (Token)iter.next();
+            if (last.type == TokenType.BLOCK_MAPPING_START) blockMappings++;
+            if (last.type == TokenType.FLOW_MAPPING_START) flowMappings++;
+            if (last.type == TokenType.KEY) keys++;
+        }
+        assertEquals(40, blockMappings);
+        assertEquals(40, flowMappings);
+        assertEquals(80, keys);
+        assertEquals(TokenType.STREAM_END, last.type);
+    }
+
+    /**
+     * Purpose: Scalars returned as slices of the input window keep their value after the window has moved on
+     * Input: Tokenizer(Reader, 8) with setScalarSlices(true), all tokens read before any value is used
+     * Expected:
+     * the same tokens as Tokenizer(String), with contiguous plain scalars and quoted scalars without escapes or line breaks
+     * returned as CharSlice
+     */
+    @Test
+    public void testScalarSlices() {
+        String yaml = "first: a plain scalar\nsecond: [1, 22, 333]\nthird: folded\n  over lines\nfourth: 'quoted'\n"
+                + "fifth: \"tab\\there\"\nsixth: 'it''s'\nseventh: \"folded\n  quote\"\n";
+        Tokenizer tokenizer = new Tokenizer(new StringReader(yaml), 8);
+        tokenizer.setScalarSlices(true);
+        List<Token> tokens = new ArrayList<Token>();
+        for (Token token; (token = tokenizer.getNextToken()) != null;)
+            tokens.add(token);
+
+        Iterator expected = new Tokenizer(yaml).iterator();
+        int slices = 0;
+        for (Token token : tokens) {
+            assertEquals(expected.next() + "", token + "");
+            if (token instanceof ScalarToken && ((ScalarToken)token).getChars() instanceof CharSlice) slices++;
+        }
+        assertEquals(12, slices);
+    }
+
+    /**
+     * Purpose: Resetting a tokenizer whose window grew for a long scalar shrinks the window back to the configured size
+     * Input: Tokenizer(Reader, 8), with and without setScalarSlices(true), reading a 1000 character scalar then reset
+     * Expected:
+     * the window is larger than 8 after the long scalar and 8 after reset, and the next stream is tokenized the same
+     */
+    @Test
+    public void testResetShrinksWindow() throws Exception {
+        StringBuilder longScalar = new StringBuilder();
+        for (int i = 0; i < 1000; i++)
+            longScalar.append('x');
+        Field bufferField = Tokenizer.class.getDeclaredField("buffer");
+        bufferField.setAccessible(true);
+        for (int i = 0; i < 2; i++) {
+            Tokenizer tokenizer = new Tokenizer(new StringReader("key: " + longScalar + "\n"), 8);
+            tokenizer.setScalarSlices(i == 1);
+            while (tokenizer.getNextToken() != null) {
+            }
+            assertTrue(((char[])bufferField.get(tokenizer)).length > 8);
+
+            tokenizer.reset(new StringReader("a: b\n"));
+            assertEquals(8, ((char[])bufferField.get(tokenizer)).length);
+            Iterator expected = new Tokenizer("a: b\n").iterator();
+            Iterator actual = tokenizer.iterator();
+            while (expected.hasNext() || actual.hasNext()) {
+                assertEquals(expected.next() + "", actual.next() + "");
+            }
+        }
+    }
+
+    /**
+     * Purpose: Computing the line number and column lazily gives the same positions as tracking them for every character
+     * Input: Tokenizer(Reader, 4) with setLazyPosition(true), including CRLF and NEL line breaks, U+2028, U+FEFF and an
+     * invalid document
+     * Expected:
+     * the same tokens, line numbers and columns as Tokenizer(String), and the same error message
+     */
+    @Test
+    public void testLazyPosition() {
+        String yaml = "key: va\u2028lue\uFEFF\r\nlist:\r\n  - a\n  - \"b\n  c\"\r  - |\n    literal\nflow: {x: [1, 2]}\u0085  @bad\n";
+        Tokenizer expected = new Tokenizer(yaml);
+        Tokenizer actual = new Tokenizer(new StringReader(yaml), 4);
+        actual.setLazyPosition(true);
+        String expectedError = null, actualError = null;
+        while (true) {
+            Token expectedToken = null, actualToken = null;
+            try {
+                expectedToken = expected.getNextToken();
+            } catch (TokenizerException ex) {
+                expectedError = ex.getMessage();
+            }
+            try {
+                actualToken = actual.getNextToken();
+            } catch (TokenizerException ex) {
+                actualError = ex.getMessage();
+            }
+            assertEquals(expectedToken + "", actualToken + "");
+            assertEquals(expected.getLineNumber(), actual.getLineNumber());
+            assertEquals(expected.getColumn(), actual.getColumn());
+            if (expectedToken == null) break;
+        }
+        assertEquals("Line 8, column 2: While scanning for the next token, a character that cannot begin a token was found: '@' (64)",
+            expectedError);
+        assertEquals(expectedError, actualError);
+    }
+
+    /**
+     * Purpose: Decoding escape sequences in double quoted scalars
+     * Input: a double quoted scalar using single character, hexadecimal and Unicode escapes and an escaped line break
+     * Expected:
+     * the decoded value, with the 8 digit escape as a surrogate pair
+     * an escape beyond U+10FFFF throws TokenizerException.class
+     */
+    @Test(expected = TokenizerException.class)
+    public void testDoubleQuotedEscapes() {
+        Tokenizer tokenizer = new Tokenizer("\"a\\tb\\x41\\u00e9\\U0001F600\\N\\\\\\\" c\\\n  d\"");
+        tokenizer.getNextToken(); // STREAM_START
+        assertEquals("a\tbA\u00e9\ud83d\ude00\u0085\\\" cd", ((ScalarToken)tokenizer.getNextToken()).getValue());
+
+        tokenizer = new Tokenizer("\"\\U00110000\"");
+        tokenizer.getNextToken(); // STREAM_START
+        tokenizer.getNextToken();
+    }
+
+}